@@ -0,0 +1,118 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemJsonWriter;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserJsonWriter;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List responses as the controllers used to write them (entities to a DTO list, then Jackson's
+ * reflective serializer) against the hand-written writers fed straight from the entities.
+ * {@code bytes} is the output rate; run with {@code -prof gc} for the allocation rate per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListJsonBenchmark {
+    @Param({"20", "1000", "10000"})
+    int listSize;
+
+    final ObjectMapper mapper = new ObjectMapper();
+    List<Item> items;
+    List<User> users;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(listSize);
+        users = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            items.add(new Item((long) i + 1, "Item #" + i, "Description of item " + i, i % 2 == 0,
+                    7L, i % 10 == 0 ? (long) i : null));
+            users.add(new User((long) i + 1, "User " + i, "user" + i + "@example.com"));
+        }
+    }
+
+    /** Counts what a benchmark wrote and drops it, standing in for the servlet stream. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Written extends OutputStream {
+        public long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    @Benchmark
+    public void itemsViaDtos(Written out) throws IOException {
+        List<ItemDto> page = new ArrayList<>(items.size());
+        for (Item item : items) {
+            page.add(ItemMapper.toDto(item));
+        }
+        mapper.writeValue(out, page);
+    }
+
+    @Benchmark
+    public void itemsDirect(Written out) throws IOException {
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            gen.writeStartArray();
+            for (Item item : items) {
+                ItemJsonWriter.write(gen, item, null, null);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    @Benchmark
+    public void usersViaDtos(Written out) throws IOException {
+        List<UserDto> page = new ArrayList<>(users.size());
+        for (User user : users) {
+            page.add(UserMapper.toDto(user));
+        }
+        mapper.writeValue(out, page);
+    }
+
+    @Benchmark
+    public void usersDirect(Written out) throws IOException {
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            gen.writeStartArray();
+            for (User user : users) {
+                UserJsonWriter.write(gen, user);
+            }
+            gen.writeEndArray();
+        }
+    }
+}
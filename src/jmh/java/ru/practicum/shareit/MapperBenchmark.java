@@ -0,0 +1,82 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Entity/DTO conversions, single and for a page the size of a typical list response. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"20", "1000"})
+    int listSize;
+
+    Item item;
+    ItemDto itemDto;
+    User user;
+    UserDto userDto;
+    List<Item> items;
+
+    @Setup
+    public void setUp() {
+        item = new Item(1L, "Cordless drill", "Drill with a spare battery", true, 7L);
+        itemDto = ItemMapper.toDto(item);
+        user = new User(7L, "Owner", "owner@example.com");
+        userDto = UserMapper.toDto(user);
+        items = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            items.add(new Item((long) i + 1, "Item #" + i, "Description of item " + i, i % 2 == 0, 7L));
+        }
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toDto(item);
+    }
+
+    @Benchmark
+    public Item itemFromDto() {
+        return ItemMapper.fromDto(itemDto, 7L);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return UserMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User userFromDto() {
+        return UserMapper.fromDto(userDto);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemPageToDto() {
+        List<ItemDto> page = new ArrayList<>(items.size());
+        for (Item i : items) {
+            page.add(ItemMapper.toDto(i));
+        }
+        return page;
+    }
+}
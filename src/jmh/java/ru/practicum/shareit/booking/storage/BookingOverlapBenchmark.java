@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Overlap check on one heavily booked item: interval index vs scanning the item's bookings. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingOverlapBenchmark {
+    private static final Long ITEM_ID = 1L;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Param({"1000", "1000000"})
+    int bookingCount;
+
+    InMemoryBookingStorage storage;
+    List<Booking> itemBookings;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryBookingStorage();
+        for (int i = 0; i < bookingCount; i++) {
+            // двухчасовые брони с часовым зазором
+            LocalDateTime start = EPOCH.plusHours(3L * i);
+            storage.save(new Booking(null, start, start.plusHours(2), ITEM_ID, 2L,
+                    i % 2 == 0 ? BookingStatus.APPROVED : BookingStatus.WAITING));
+        }
+        itemBookings = storage.findByItemIds(List.of(ITEM_ID));
+    }
+
+    @Benchmark
+    public boolean intervalIndex() {
+        LocalDateTime start = randomStart();
+        return storage.isFree(ITEM_ID, start, start.plusMinutes(30));
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        LocalDateTime start = randomStart();
+        LocalDateTime end = start.plusMinutes(30);
+        for (Booking booking : itemBookings) {
+            if (booking.getStart().isBefore(end) && booking.getEnd().isAfter(start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public Booking nextApproved() {
+        return storage.findNextApproved(ITEM_ID, randomStart()).orElse(null);
+    }
+
+    private LocalDateTime randomStart() {
+        return EPOCH.plusMinutes(ThreadLocalRandom.current().nextLong(3L * 60 * bookingCount));
+    }
+}
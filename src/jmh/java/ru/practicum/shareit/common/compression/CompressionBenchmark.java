@@ -0,0 +1,155 @@
+package ru.practicum.shareit.common.compression;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.item.mapper.ItemJsonWriter;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU per owner-list response and bytes on the wire: uncompressed, gzip through the pooled
+ * {@link CompressingResponse}, and a fresh {@link GZIPOutputStream} per response as the
+ * container's own compression does. {@code ops/s} inverted is the CPU cost of one response;
+ * {@code wireBytes} over {@code ops} is its size on the wire.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+    private static final String[] WORDS = {"drill", "hammer", "saw", "ladder", "tent", "kayak", "camera", "tripod"};
+    private static final String[] ADJECTIVES = {"cordless", "electric", "heavy", "compact", "old", "folding"};
+    /** Jackson hands the body over in buffers of this size */
+    private static final int WRITE_SIZE = 8000;
+
+    @Param({"20", "100", "1000", "10000"})
+    int listSize;
+
+    @Param({"1", "6"})
+    int level;
+
+    byte[] body;
+    DeflaterPool pool;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Wire {
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            wireBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator gen = new ObjectMapper().getFactory().createGenerator(out)) {
+            gen.writeStartArray();
+            for (int i = 0; i < listSize; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                Item item = new Item((long) random.nextInt(1_000_000), ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+                        + " " + word + " #" + i, "Good " + word + ", comes with a "
+                        + WORDS[random.nextInt(WORDS.length)] + " and a case", random.nextBoolean(), 7L);
+                ItemJsonWriter.write(gen, item, null, null);
+            }
+            gen.writeEndArray();
+        }
+        body = out.toByteArray();
+        pool = new DeflaterPool(level, 4);
+    }
+
+    @Benchmark
+    public void identity(Wire wire) throws IOException {
+        write(new Discarding(wire).getOutputStream());
+    }
+
+    @Benchmark
+    public void pooledGzip(Wire wire) throws IOException {
+        CompressingResponse response = new CompressingResponse(new Discarding(wire), pool, 2048);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try {
+            write(response.getOutputStream());
+            response.finish();
+        } finally {
+            response.release();
+        }
+    }
+
+    @Benchmark
+    public void freshGzip(Wire wire) throws IOException {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(new Discarding(wire).getOutputStream(), WRITE_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            write(gzip);
+        }
+    }
+
+    private void write(OutputStream out) throws IOException {
+        for (int off = 0; off < body.length; off += WRITE_SIZE) {
+            out.write(body, off, Math.min(WRITE_SIZE, body.length - off));
+        }
+    }
+
+    /** Counts the bytes that would go on the wire and drops them. */
+    private static final class Discarding extends MockHttpServletResponse {
+        private final Wire wire;
+
+        Discarding(Wire wire) {
+            this.wire = wire;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    wire.wireBytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    wire.wireBytes += len;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+            };
+        }
+    }
+}
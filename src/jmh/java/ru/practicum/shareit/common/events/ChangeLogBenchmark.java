@@ -0,0 +1,95 @@
+package ru.practicum.shareit.common.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.item.storage.ItemSearchBenchmark;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What publishing adds to a write: {@code update} vs {@code updateAndPublish} is the in-memory
+ * store's patch with and without the change event, {@code publish4} is four writers contending
+ * on the ring, and the {@code tail} group has a consumer reading while three threads publish.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ChangeLogBenchmark {
+    private static final int ITEMS = 100_000;
+    private static final Instant NOW = Instant.now();
+
+    ChangeLog changeLog;
+    InMemoryItemStorage storage;
+    long[] owners;
+
+    @Setup
+    public void setUp() {
+        changeLog = new ChangeLog(65536);
+        storage = new InMemoryItemStorage();
+        ItemSearchBenchmark.fill(storage, ITEMS, new Random(42));
+        owners = new long[ITEMS + 1];
+        storage.forEach(item -> owners[item.getId().intValue()] = item.getOwnerId());
+    }
+
+    @Benchmark
+    public Item update() {
+        long id = ThreadLocalRandom.current().nextInt(ITEMS) + 1;
+        return storage.updatePartial(id, new Item(null, null, null, ThreadLocalRandom.current().nextBoolean(), null),
+                owners[(int) id]);
+    }
+
+    @Benchmark
+    public Item updateAndPublish() {
+        Item item = update();
+        changeLog.publish(ChangeEvent.Entity.ITEM, ChangeEvent.Type.UPDATED, item.getId(), item.getVersion(),
+                item.getUpdatedAt());
+        return item;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void publish4() {
+        changeLog.publish(ChangeEvent.Entity.ITEM, ChangeEvent.Type.UPDATED,
+                ThreadLocalRandom.current().nextInt(ITEMS), 1, NOW);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+    }
+
+    @Benchmark
+    @Group("tail")
+    @GroupThreads(3)
+    public void tailPublish() {
+        publish4();
+    }
+
+    @Benchmark
+    @Group("tail")
+    @GroupThreads(1)
+    public int tailRead(Cursor cursor) {
+        ChangeLog.Batch batch = changeLog.read(cursor.next, 500, true);
+        cursor.next = batch.next();
+        return batch.events().size();
+    }
+}
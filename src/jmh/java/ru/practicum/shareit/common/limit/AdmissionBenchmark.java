@@ -0,0 +1,80 @@
+package ru.practicum.shareit.common.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link AdmissionFilter} on the admitted path, against calling the chain
+ * directly. Limits are set out of reach so nothing is rejected; run with {@code -Djmh.threads=N}
+ * to see the shared permit counter and the bucket CAS under contention.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdmissionBenchmark {
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    @Param({"none", "filter"})
+    String mode;
+
+    /** distinct X-Sharer-User-Id values the writes spread over */
+    @Param({"1", "100000"})
+    int users;
+
+    AdmissionFilter filter;
+    MockHttpServletRequest read;
+    MockHttpServletRequest write;
+    MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        filter = new AdmissionFilter(1e9, 1_000_000, 1_000_000, new SimpleMeterRegistry(),
+                Jackson2ObjectMapperBuilder.json().build());
+        read = new MockHttpServletRequest("GET", "/items/1");
+        write = new MockHttpServletRequest("PATCH", "/items/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletRequest readRequest() throws Exception {
+        handle(read);
+        return read;
+    }
+
+    @Benchmark
+    public MockHttpServletRequest writeRequest() throws Exception {
+        write.removeHeader(AdmissionFilter.USER_HEADER);
+        write.addHeader(AdmissionFilter.USER_HEADER, Integer.toString(ThreadLocalRandom.current().nextInt(users)));
+        handle(write);
+        return write;
+    }
+
+    private void handle(MockHttpServletRequest request) throws Exception {
+        if ("filter".equals(mode)) {
+            filter.doFilter(request, response, CHAIN);
+        } else {
+            CHAIN.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.common.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup recovery of {@code records} items: replaying a log of one record per write vs loading
+ * a snapshot written in batches. Each record is an update of one of {@code records / 4} items,
+ * so the log also carries the overwritten versions a snapshot has already folded away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecoveryBenchmark {
+    @Param({"wal", "snapshot"})
+    String source;
+
+    @Param({"1000000"})
+    int records;
+
+    Path dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("recovery-bench");
+        int distinct = records / 4;
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1, FsyncMode.GROUP)) {
+            for (int i = 0; i < records; i++) {
+                wal.append(Records.items(List.of(item(i % distinct + 1, i))));
+            }
+        }
+        if ("snapshot".equals(source)) {
+            StorageJournal.writeSnapshot(dir, 2, 1, distinct + 1, List.of(), action -> {
+                for (int id = 1; id <= distinct; id++) {
+                    action.accept(item(id, records - distinct + id - 1));
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        return StorageJournal.recover(dir).items.size();
+    }
+
+    private static Item item(long id, int version) {
+        return new Item(id, "Item #" + id, "Generated item, version " + version, version % 3 != 0, id % 1000 + 1);
+    }
+}
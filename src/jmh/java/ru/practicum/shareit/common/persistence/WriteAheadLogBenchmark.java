@@ -0,0 +1,69 @@
+package ru.practicum.shareit.common.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable writes per second: one item after-image appended and synced per operation.
+ * Group commit only pays off with concurrent writers, so compare the modes with
+ * {@code -Djmh.threads=16}; with one thread both modes fsync every write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+    @Param({"PER_OP", "GROUP"})
+    FsyncMode mode;
+
+    Path dir;
+    WriteAheadLog wal;
+    ByteBuffer record;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("wal-bench");
+        wal = new WriteAheadLog(dir, 1, mode);
+        record = Records.items(List.of(new Item(1L, "Drill", "Cordless drill with a spare battery", true, 1L)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        wal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long appendAndSync() {
+        long lsn = wal.append(record);
+        wal.sync(lsn);
+        return lsn;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.storage.InMemoryBookingStorage;
+import ru.practicum.shareit.common.BatchValidator;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.common.events.ChangeLog;
+import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.request.storage.InMemoryItemRequestStorage;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserCleanup;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Time to import {@code batchSize} items one request at a time vs one {@code POST /items/batch},
+ * through MockMvc so that JSON binding and validation are part of both paths.
+ * The services are wired without cache proxies, so every single create pays the owner lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBatchBenchmark {
+    private static final long OWNER_ID = 1L;
+
+    @Param({"100", "1000"})
+    int batchSize;
+
+    final ObjectMapper mapper = new ObjectMapper();
+    MockMvc mvc;
+    List<String> singles;
+    String batch;
+
+    @Setup
+    public void prepare() throws Exception {
+        List<ItemDto> dtos = new ArrayList<>(batchSize);
+        singles = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            ItemDto dto = new ItemDto(null, "Drill #" + i, "Cordless drill with a spare battery", true);
+            dtos.add(dto);
+            singles.add(mapper.writeValueAsString(dto));
+        }
+        batch = mapper.writeValueAsString(dtos);
+    }
+
+    /** Fresh storages per iteration so the maps do not grow across the whole run. */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BatchValidator validator = new BatchValidator(Validation.buildDefaultValidatorFactory().getValidator());
+        InMemoryUserStorage users = new InMemoryUserStorage();
+        users.save(new User(null, "Importer", "importer@example.com"));
+        InMemoryItemStorage items = new InMemoryItemStorage();
+        UserServiceImpl userService = new UserServiceImpl(users, items, new UserCleanup(items, 1000), validator,
+                new ChangeLog(65536));
+        ItemServiceImpl itemService = new ItemServiceImpl(items, new InMemoryBookingStorage(),
+                userService, new InMemoryItemRequestStorage(), validator,
+                new ConcurrentMapCacheManager(CacheConfig.ITEMS), new ChangeLog(65536), new SimpleMeterRegistry());
+        mvc = MockMvcBuilders.standaloneSetup(new ItemController(itemService, mapper, 100))
+                .setControllerAdvice(new ErrorHandler(new SimpleMeterRegistry(), 10))
+                .build();
+    }
+
+    @Benchmark
+    public int oneByOne() throws Exception {
+        int status = 0;
+        for (String json : singles) {
+            status += mvc.perform(post("/items")
+                            .header("X-Sharer-User-Id", OWNER_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andReturn().getResponse().getStatus();
+        }
+        return status;
+    }
+
+    @Benchmark
+    public int batch() throws Exception {
+        return mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", OWNER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.storage.InMemoryBookingStorage;
+import ru.practicum.shareit.common.BatchValidator;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.common.events.ChangeLog;
+import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.item.storage.ItemSearchBenchmark;
+import ru.practicum.shareit.request.storage.InMemoryItemRequestStorage;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserCleanup;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full request round-trips through {@link ItemController}: dispatch, service, storage and JSON.
+ * The catalog is shared by all benchmark threads, each thread drives its own MockMvc.
+ * {@code missingItem} is the error path: every call ends in a {@code NotFoundException}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemControllerBenchmark {
+    private static final int OWNERS = 1000;
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"10000", "100000"})
+        int itemCount;
+
+        ItemController controller;
+
+        @Setup
+        public void setUp() {
+            BatchValidator validator = new BatchValidator(Validation.buildDefaultValidatorFactory().getValidator());
+            InMemoryUserStorage users = new InMemoryUserStorage();
+            for (int i = 0; i < OWNERS; i++) {
+                users.save(new User(null, "Owner " + i, "owner" + i + "@example.com"));
+            }
+            InMemoryItemStorage items = new InMemoryItemStorage();
+            ItemSearchBenchmark.fill(items, itemCount, new Random(42));
+            ItemServiceImpl service = new ItemServiceImpl(items, new InMemoryBookingStorage(),
+                    new UserServiceImpl(users, items, new UserCleanup(items, 1000), validator,
+                            new ChangeLog(65536)),
+                    new InMemoryItemRequestStorage(), validator,
+                    new ConcurrentMapCacheManager(CacheConfig.ITEMS), new ChangeLog(65536),
+                    new SimpleMeterRegistry());
+            controller = new ItemController(service, new ObjectMapper(), 100);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        MockMvc mvc;
+
+        @Setup
+        public void setUp(Catalog catalog) {
+            mvc = MockMvcBuilders.standaloneSetup(catalog.controller)
+                    .setControllerAdvice(new ErrorHandler(new SimpleMeterRegistry(), 10))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public String getItem(Catalog catalog, Client client) throws Exception {
+        long id = ThreadLocalRandom.current().nextInt(catalog.itemCount) + 1;
+        return client.mvc.perform(get("/items/{id}", id).header(USER_HEADER, 1))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String ownerPage(Client client) throws Exception {
+        long owner = ThreadLocalRandom.current().nextInt(OWNERS) + 1;
+        return client.mvc.perform(get("/items").header(USER_HEADER, owner).param("size", "20"))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String search(Client client) throws Exception {
+        return client.mvc.perform(get("/items/search").param("text", "cordless dri"))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /** Ids nobody has: the 404 path, exception and problem body included. */
+    @Benchmark
+    public String missingItem(Catalog catalog, Client client) throws Exception {
+        long id = catalog.itemCount + 1 + ThreadLocalRandom.current().nextInt(1_000_000);
+        return client.mvc.perform(get("/items/{id}", id).header(USER_HEADER, 1))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
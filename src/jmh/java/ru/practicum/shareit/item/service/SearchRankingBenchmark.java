@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a relevance search over {@code matches} candidates: the bounded heap in
+ * {@link SearchRanking#top} vs scoring everything and sorting the whole match set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchRankingBenchmark {
+    private static final String[] WORDS = {"drill", "hammer", "saw", "ladder", "tent", "kayak", "sander", "router"};
+
+    @Param({"10000", "100000"})
+    int matches;
+
+    @Param({"20"})
+    int size;
+
+    List<Item> candidates;
+    List<String> terms;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        candidates = new ArrayList<>(matches);
+        for (int i = 0; i < matches; i++) {
+            String other = WORDS[random.nextInt(WORDS.length)];
+            String name = random.nextBoolean() ? "cordless drill #" + i : other + " #" + i;
+            candidates.add(new Item((long) i + 1, name, "Good drill, comes with a " + other + " and a case",
+                    true, (long) random.nextInt(1000) + 1));
+        }
+        terms = SearchRanking.terms("drill cordless");
+    }
+
+    @Benchmark
+    public List<Item> boundedHeap() {
+        return SearchRanking.top(candidates, terms, 0, size);
+    }
+
+    @Benchmark
+    public List<Item> fullSort() {
+        List<long[]> scored = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            int score = SearchRanking.score(candidates.get(i), terms);
+            if (score > 0) {
+                scored.add(new long[]{score, i});
+            }
+        }
+        scored.sort(Comparator.<long[]>comparingLong(s -> -s[0]).thenComparingLong(s -> s[1]));
+        List<Item> page = new ArrayList<>(size);
+        for (int i = 0; i < size && i < scored.size(); i++) {
+            page.add(candidates.get((int) scored.get(i)[1]));
+        }
+        return page;
+    }
+}
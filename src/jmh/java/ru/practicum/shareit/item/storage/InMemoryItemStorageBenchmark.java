@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Point and owner-page reads of the in-memory store; search is covered by {@link ItemSearchBenchmark}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InMemoryItemStorageBenchmark {
+    /** {@link ItemSearchBenchmark#fill} spreads items over this many owners */
+    private static final int OWNERS = 1000;
+    private static final int PAGE = 20;
+
+    @Param({"10000", "1000000"})
+    int itemCount;
+
+    InMemoryItemStorage storage;
+    int lastPageFrom;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryItemStorage();
+        ItemSearchBenchmark.fill(storage, itemCount, new Random(42));
+        lastPageFrom = Math.max(0, itemCount / OWNERS - PAGE);
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return storage.findById((long) ThreadLocalRandom.current().nextInt(itemCount) + 1);
+    }
+
+    @Benchmark
+    public List<Item> findByOwnerFirstPage() {
+        return storage.findByOwner((long) ThreadLocalRandom.current().nextInt(OWNERS) + 1, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Item> findByOwnerLastPage() {
+        return storage.findByOwner((long) ThreadLocalRandom.current().nextInt(OWNERS) + 1, lastPageFrom, PAGE);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-criteria filtering over the whole catalog, from selective to broad: bitmap and posting
+ * list intersection ({@code indexed}) vs checking every item ({@code linearScan}). Every match
+ * is collected, so the cost grows with the result as well as with the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ItemFilterBenchmark {
+    private static final long OWNER = 7;
+
+    @Param({"1000000"})
+    int itemCount;
+
+    /** roughly from the most to the least selective */
+    @Param({"owner+text", "owner+unavailable", "owner", "owner+short-text", "text", "available"})
+    String criteria;
+
+    InMemoryItemStorage storage;
+    ItemFilter filter;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryItemStorage();
+        ItemSearchBenchmark.fill(storage, itemCount, new Random(42));
+        filter = switch (criteria) {
+            case "owner+text" -> new ItemFilter("kayak", true, OWNER);
+            case "owner+unavailable" -> new ItemFilter(null, false, OWNER);
+            case "owner" -> new ItemFilter(null, true, OWNER);
+            case "owner+short-text" -> new ItemFilter("ka", true, OWNER);
+            case "text" -> new ItemFilter("cordless kayak", true, null);
+            case "available" -> new ItemFilter(null, true, null);
+            default -> throw new IllegalArgumentException(criteria);
+        };
+    }
+
+    @Benchmark
+    public List<Item> indexed() {
+        List<Item> found = new ArrayList<>();
+        storage.filter(filter, found::add);
+        return found;
+    }
+
+    @Benchmark
+    public List<Item> linearScan() {
+        String text = filter.text() == null ? null : filter.text().toLowerCase(Locale.ROOT);
+        List<Item> found = new ArrayList<>();
+        storage.forEach(item -> {
+            if (ItemFilter.matches(filter, text, item)) {
+                found.add(item);
+            }
+        });
+        return found;
+    }
+}
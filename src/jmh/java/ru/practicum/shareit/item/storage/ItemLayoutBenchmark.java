@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Object-per-item store vs the columnar store on the same catalog. Setup logs the retained
+ * heap of each layout, so one run gives both the memory and the speed side of the trade.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemLayoutBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(ItemLayoutBenchmark.class);
+
+    @Param({"objects", "columnar"})
+    String layout;
+
+    @Param({"1000000"})
+    int itemCount;
+
+    ItemStorage storage;
+
+    @Setup
+    public void setUp() {
+        long before = retainedHeap();
+        storage = "columnar".equals(layout) ? new ColumnarItemStorage() : new InMemoryItemStorage();
+        ItemSearchBenchmark.fill(storage, itemCount, new Random(42));
+        long retained = retainedHeap() - before;
+        log.info("{}: {} MB retained, {} bytes per item", layout, retained >> 20, retained / itemCount);
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return storage.findById((long) ThreadLocalRandom.current().nextInt(itemCount) + 1);
+    }
+
+    @Benchmark
+    public List<Item> ownerPage() {
+        return storage.findByOwner((long) ThreadLocalRandom.current().nextInt(1000) + 1, 0, 20);
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return storage.search("cordless jig");
+    }
+
+    @Benchmark
+    public long scan() {
+        long[] sum = {0};
+        storage.forEach(item -> sum[0] += item.getId());
+        return sum[0];
+    }
+
+    private static long retainedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
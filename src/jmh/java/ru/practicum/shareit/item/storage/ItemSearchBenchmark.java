@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trigram index search vs the previous full scan of the item map.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.includes=ItemSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+    static final String[] WORDS = {
+        "drill", "hammer", "saw", "ladder", "tent", "kayak", "bicycle", "projector", "camera", "tripod",
+        "sander", "grinder", "wrench", "screwdriver", "generator", "compressor", "vacuum", "mixer", "router", "jigsaw"
+    };
+    static final String[] ADJECTIVES = {
+        "cordless", "electric", "heavy", "compact", "professional", "old", "new", "folding", "portable", "spare"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    int itemCount;
+
+    @Param({"drill", "cordless jig", "spare ten"})
+    String query;
+
+    InMemoryItemStorage storage;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryItemStorage();
+        fill(storage, itemCount, new Random(42));
+    }
+
+    @Benchmark
+    public List<Item> indexed() {
+        return storage.search(query);
+    }
+
+    /** The search as it was before the index: every item checked, matches sorted by id. */
+    @Benchmark
+    public List<Item> fullScan() {
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        ItemFilter filter = ItemFilter.availableWith(lowerQuery);
+        List<Item> found = new ArrayList<>();
+        storage.forEach(item -> {
+            if (ItemFilter.matches(filter, lowerQuery, item)) {
+                found.add(item);
+            }
+        });
+        found.sort(Comparator.comparing(Item::getId));
+        return found;
+    }
+
+    public static void fill(ItemStorage storage, int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            String other = WORDS[random.nextInt(WORDS.length)];
+            storage.save(new Item(null, adjective + " " + word + " #" + i,
+                    "Good " + word + ", comes with a " + other + " and a case",
+                    random.nextInt(4) != 0, (long) random.nextInt(1000) + 1));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import ru.practicum.shareit.common.TimedOperations;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the timing advice, proxy included, on the cheapest and a typical storage call. Run with
+ * {@code -Djmh.args="-prof gc"} to confirm the recording path adds no allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    @Param({"plain", "timed"})
+    String mode;
+
+    @Param({"100000"})
+    int itemCount;
+
+    ItemStorage storage;
+
+    @Setup
+    public void setUp() {
+        InMemoryItemStorage items = new InMemoryItemStorage();
+        ItemSearchBenchmark.fill(items, itemCount, new Random(42));
+        if ("timed".equals(mode)) {
+            ProxyFactory factory = new ProxyFactory(items);
+            factory.setProxyTargetClass(true);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            factory.addAdvisor(new DefaultPointcutAdvisor(TimedOperations.POINTCUT,
+                    new TimedOperations(() -> registry)));
+            storage = (ItemStorage) factory.getProxy();
+        } else {
+            storage = items;
+        }
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return storage.findById((long) ThreadLocalRandom.current().nextInt(itemCount) + 1);
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return storage.search("cordless dri");
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans for texts shorter than a trigram: the whole result and a first page, split across
+ * {@code threads} threads ({@code 1} is the sequential walk). Scaling only shows with at least
+ * that many cores, e.g. {@code -Djmh.includes=ParallelScanBenchmark} on a 16-core host.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelScanBenchmark {
+    private static final int BATCH = 10_000;
+
+    @Param({"1", "2", "4", "8", "16"})
+    int threads;
+
+    @Param({"1000000"})
+    int itemCount;
+
+    /** {@code "co"} matches most items, {@code "#7"} about a tenth, {@code "zq"} none */
+    @Param({"co", "#7", "zq"})
+    String query;
+
+    InMemoryItemStorage storage;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryItemStorage();
+        storage.setParallelScan(0, threads);
+        Random random = new Random(42);
+        List<Item> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < itemCount; i++) {
+            String word = ItemSearchBenchmark.WORDS[random.nextInt(ItemSearchBenchmark.WORDS.length)];
+            String adjective = ItemSearchBenchmark.ADJECTIVES[random.nextInt(ItemSearchBenchmark.ADJECTIVES.length)];
+            batch.add(new Item(null, adjective + " " + word + " #" + i, "Good " + word + ", comes with a case",
+                    random.nextInt(4) != 0, (long) random.nextInt(1000) + 1));
+            if (batch.size() == BATCH) {
+                storage.saveAll(batch);
+                batch = new ArrayList<>(BATCH);
+            }
+        }
+        storage.saveAll(batch);
+    }
+
+    @Benchmark
+    public List<Item> all() {
+        return storage.search(query);
+    }
+
+    @Benchmark
+    public List<Item> firstPage() {
+        List<Item> page = new ArrayList<>(20);
+        storage.filter(ItemFilter.availableWith(query), item -> {
+            page.add(item);
+            return page.size() < 20;
+        });
+        return page;
+    }
+}
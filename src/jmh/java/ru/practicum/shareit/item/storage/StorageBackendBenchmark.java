@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.storage;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.JdbcUserStorage;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Latency of the in-memory store against the JDBC store on embedded H2. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBackendBenchmark {
+    private static final int OWNERS = 100;
+
+    @Param({"memory", "jdbc"})
+    String backend;
+
+    @Param({"10000"})
+    int itemCount;
+
+    ItemStorage storage;
+
+    @Setup
+    public void setUp() {
+        if ("jdbc".equals(backend)) {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+            new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).execute(dataSource);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            JdbcUserStorage users = new JdbcUserStorage(jdbc);
+            for (int i = 0; i < OWNERS; i++) {
+                users.save(new User(null, "Owner " + i, "owner" + i + "@example.com"));
+            }
+            storage = new JdbcItemStorage(jdbc);
+        } else {
+            storage = new InMemoryItemStorage();
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < itemCount; i++) {
+            String word = ItemSearchBenchmark.WORDS[random.nextInt(ItemSearchBenchmark.WORDS.length)];
+            storage.save(new Item(null, word + " #" + i, "Rent this " + word, random.nextBoolean(),
+                    (long) random.nextInt(OWNERS) + 1));
+        }
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return storage.findById((long) ThreadLocalRandom.current().nextInt(itemCount) + 1);
+    }
+
+    @Benchmark
+    public List<Item> ownerPage() {
+        return storage.findByOwner((long) ThreadLocalRandom.current().nextInt(OWNERS) + 1, 0, 20);
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return storage.search("ladder");
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed load: readers and a writer hit the same catalog at once. The object store swaps in
+ * patched copies and its readers take no lock; the columnar store guards both sides with one
+ * read-write lock. Compare the read rates of the two layouts at the same write rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UpdateContentionBenchmark {
+    private static final int OWNERS = 1000;
+
+    @Param({"objects", "columnar"})
+    String layout;
+
+    @Param({"100000"})
+    int itemCount;
+
+    ItemStorage storage;
+    long[] owners;
+
+    @Setup
+    public void setUp() {
+        storage = "columnar".equals(layout) ? new ColumnarItemStorage() : new InMemoryItemStorage();
+        ItemSearchBenchmark.fill(storage, itemCount, new Random(42));
+        owners = new long[itemCount + 1];
+        storage.forEach(item -> owners[item.getId().intValue()] = item.getOwnerId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<Item> findById() {
+        return storage.findById((long) ThreadLocalRandom.current().nextInt(itemCount) + 1);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public List<Item> ownerPage() {
+        return storage.findByOwner((long) ThreadLocalRandom.current().nextInt(OWNERS) + 1, 0, 20);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Item update() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextInt(itemCount) + 1;
+        return storage.updatePartial(id, new Item(null, "Updated " + random.nextInt(100), null,
+                random.nextBoolean(), null), owners[(int) id]);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.user.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.user.User;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Email uniqueness lookups must stay flat from 1k to 1M users. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserEmailBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int userCount;
+
+    InMemoryUserStorage storage;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryUserStorage();
+        for (int i = 0; i < userCount; i++) {
+            storage.save(new User(null, "User " + i, "user" + i + "@example.com"));
+        }
+    }
+
+    @Benchmark
+    public boolean existingEmail() {
+        int i = ThreadLocalRandom.current().nextInt(userCount);
+        return storage.emailExists("USER" + i + "@example.com", null);
+    }
+
+    @Benchmark
+    public boolean missingEmail() {
+        int i = ThreadLocalRandom.current().nextInt(userCount);
+        return storage.emailExists("nobody" + i + "@example.com", null);
+    }
+}
@@ -1,12 +1,53 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
 
-/**
- * TODO Sprint add-bookings.
- */
+import java.util.List;
+
+/** REST controller for bookings. */
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final BookingService service;
+
+    public BookingController(BookingService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookingDto create(@RequestHeader(USER_HEADER) Long userId, @Valid @RequestBody BookingCreateDto dto) {
+        return service.create(userId, dto);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public BookingDto approve(@RequestHeader(USER_HEADER) Long userId,
+                              @PathVariable Long bookingId,
+                              @RequestParam boolean approved) {
+        return service.approve(userId, bookingId, approved);
+    }
+
+    @GetMapping("/{bookingId}")
+    public BookingDto get(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long bookingId) {
+        return service.get(userId, bookingId);
+    }
+
+    @GetMapping
+    public List<BookingDto> bookerBookings(@RequestHeader(USER_HEADER) Long userId,
+                                           @RequestParam(defaultValue = "ALL") String state) {
+        return service.getByBooker(userId, BookingState.from(state));
+    }
+
+    @GetMapping("/owner")
+    public List<BookingDto> ownerBookings(@RequestHeader(USER_HEADER) Long userId,
+                                          @RequestParam(defaultValue = "ALL") String state) {
+        return service.getByOwner(userId, BookingState.from(state));
+    }
 }
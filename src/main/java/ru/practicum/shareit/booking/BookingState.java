@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/** Filter for booking lists, passed as the {@code state} query parameter. */
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String value) {
+        for (BookingState state : values()) {
+            if (state.name().equalsIgnoreCase(value)) {
+                return state;
+            }
+        }
+        throw new IllegalArgumentException("Unknown state: " + value);
+    }
+
+    public boolean matches(Booking booking, LocalDateTime now) {
+        return switch (this) {
+            case ALL -> true;
+            case CURRENT -> !booking.getStart().isAfter(now) && booking.getEnd().isAfter(now);
+            case PAST -> !booking.getEnd().isAfter(now);
+            case FUTURE -> booking.getStart().isAfter(now);
+            case WAITING -> booking.getStatus() == BookingStatus.WAITING;
+            case REJECTED -> booking.getStatus() == BookingStatus.REJECTED;
+        };
+    }
+}
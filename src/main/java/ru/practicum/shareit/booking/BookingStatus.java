@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingStatus {
+    WAITING,
+    APPROVED,
+    REJECTED,
+    CANCELED;
+
+    /** WAITING and APPROVED bookings hold the item's time slot. */
+    public boolean holdsSlot() {
+        return this == WAITING || this == APPROVED;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/** DTO accepted via REST when a user books an item. */
+public class BookingCreateDto {
+    @NotNull
+    private Long itemId;
+
+    @NotNull
+    @FutureOrPresent
+    private LocalDateTime start;
+
+    @NotNull
+    @Future
+    private LocalDateTime end;
+
+    public BookingCreateDto() {
+    }
+
+    public BookingCreateDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+        this.itemId = itemId;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDateTime end) {
+        this.end = end;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.mapper;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BookingMapper {
+
+    public static BookingDto toDto(Booking booking, ItemDto item, UserDto booker) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(), item, booker);
+    }
+
+    public static BookingShortDto toShortDto(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingShortDto(booking.getId(), booking.getBookerId(), booking.getStart(), booking.getEnd());
+    }
+
+    public static Booking fromDto(BookingCreateDto dto, Long bookerId) {
+        if (dto == null) {
+            return null;
+        }
+        return new Booking(null, dto.getStart(), dto.getEnd(), dto.getItemId(), bookerId, BookingStatus.WAITING);
+    }
+}
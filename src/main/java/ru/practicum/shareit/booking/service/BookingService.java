@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+
+public interface BookingService {
+    BookingDto create(Long bookerId, BookingCreateDto dto);
+
+    BookingDto approve(Long ownerId, Long bookingId, boolean approved);
+
+    /** Visible only to the booker and the item owner. */
+    BookingDto get(Long userId, Long bookingId);
+
+    List<BookingDto> getByBooker(Long bookerId, BookingState state);
+
+    List<BookingDto> getByOwner(Long ownerId, BookingState state);
+}
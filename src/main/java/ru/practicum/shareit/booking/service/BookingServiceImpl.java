@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.common.exceptions.ForbiddenException;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BookingServiceImpl implements BookingService {
+    private final BookingStorage storage;
+    private final ItemStorage itemStorage;
+    private final UserService userService;
+
+    public BookingServiceImpl(BookingStorage storage, ItemStorage itemStorage, UserService userService) {
+        this.storage = storage;
+        this.itemStorage = itemStorage;
+        this.userService = userService;
+    }
+
+    @Override
+    public BookingDto create(Long bookerId, BookingCreateDto dto) {
+        UserDto booker = userService.get(bookerId);
+        if (!dto.getStart().isBefore(dto.getEnd())) {
+            throw new IllegalArgumentException("Booking start must be before end");
+        }
+        Item item = findItem(dto.getItemId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            throw new IllegalArgumentException("Item is not available for booking: " + item.getId());
+        }
+        if (Objects.equals(item.getOwnerId(), bookerId)) {
+            // владелец не может бронировать свою вещь
+            throw new NotFoundException("Item not found: " + item.getId());
+        }
+        Booking saved = storage.save(BookingMapper.fromDto(dto, bookerId));
+        return BookingMapper.toDto(saved, ItemMapper.toDto(item), booker);
+    }
+
+    @Override
+    public BookingDto approve(Long ownerId, Long bookingId, boolean approved) {
+        Booking booking = findBooking(bookingId);
+        Item item = itemStorage.findById(booking.getItemId()).orElse(null);
+        if (item == null || !Objects.equals(item.getOwnerId(), ownerId)) {
+            throw new ForbiddenException("Only the item owner can approve booking " + bookingId);
+        }
+        BookingStatus next = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        Booking updated = storage.updateStatus(bookingId, BookingStatus.WAITING, next);
+        if (updated == null) {
+            throw new IllegalArgumentException("Booking " + bookingId + " is already " + booking.getStatus());
+        }
+        return toDto(updated, item.getId(), item);
+    }
+
+    @Override
+    public BookingDto get(Long userId, Long bookingId) {
+        Booking booking = findBooking(bookingId);
+        Item item = itemStorage.findById(booking.getItemId()).orElse(null);
+        Long ownerId = item == null ? null : item.getOwnerId();
+        if (!Objects.equals(booking.getBookerId(), userId) && !Objects.equals(ownerId, userId)) {
+            throw new NotFoundException("Booking not found: " + bookingId);
+        }
+        return toDto(booking, booking.getItemId(), item);
+    }
+
+    @Override
+    public List<BookingDto> getByBooker(Long bookerId, BookingState state) {
+        userService.get(bookerId);
+        return toDtos(storage.findByBooker(bookerId), state, new HashMap<>());
+    }
+
+    @Override
+    public List<BookingDto> getByOwner(Long ownerId, BookingState state) {
+        userService.get(ownerId);
+        Map<Long, Item> items = itemStorage.findByOwner(ownerId, 0, Integer.MAX_VALUE).stream()
+                .collect(Collectors.toMap(Item::getId, i -> i));
+        return toDtos(storage.findByItemIds(items.keySet()), state, items);
+    }
+
+    /** Bookers and items missing from {@code items} are each read in one call for the whole list. */
+    private List<BookingDto> toDtos(List<Booking> bookings, BookingState state, Map<Long, Item> items) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> matching = bookings.stream()
+                .filter(b -> state.matches(b, now))
+                .sorted(Comparator.comparing(Booking::getStart).reversed())
+                .toList();
+        Map<Long, UserDto> bookers = userService.getByIds(matching.stream()
+                .map(Booking::getBookerId)
+                .collect(Collectors.toSet()));
+        Set<Long> missing = matching.stream()
+                .map(Booking::getItemId)
+                .filter(id -> !items.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            itemStorage.findByIds(missing).forEach(item -> items.put(item.getId(), item));
+        }
+        return matching.stream()
+                .map(b -> BookingMapper.toDto(b, item(items.get(b.getItemId()), b.getItemId()),
+                        booker(bookers, b.getBookerId())))
+                .collect(Collectors.toList());
+    }
+
+    private BookingDto toDto(Booking booking, Long itemId, Item item) {
+        Map<Long, UserDto> bookers = userService.getByIds(List.of(booking.getBookerId()));
+        return BookingMapper.toDto(booking, item(item, itemId), booker(bookers, booking.getBookerId()));
+    }
+
+    /** Items of a deleted owner are hidden while their bookings stay; such an item is shown by id only. */
+    private static ItemDto item(Item item, Long itemId) {
+        return item != null ? ItemMapper.toDto(item) : new ItemDto(itemId, null, null, null);
+    }
+
+    /** Bookings outlive their booker; a deleted booker is shown by id only. */
+    private static UserDto booker(Map<Long, UserDto> bookers, Long bookerId) {
+        UserDto booker = bookers.get(bookerId);
+        return booker != null ? booker : new UserDto(bookerId, null, null);
+    }
+
+    private Booking findBooking(Long bookingId) {
+        return storage.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking not found: " + bookingId));
+    }
+
+    private Item findItem(Long itemId) {
+        return itemStorage.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
+    }
+}
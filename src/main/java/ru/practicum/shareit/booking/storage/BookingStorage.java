@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingStorage {
+    /** @throws ru.practicum.shareit.common.exceptions.ConflictException if the slot overlaps a held booking */
+    Booking save(Booking booking);
+
+    Optional<Booking> findById(Long id);
+
+    /** Moves the booking from {@code expected} to {@code next}; returns {@code null} if it was not in {@code expected}. */
+    Booking updateStatus(Long id, BookingStatus expected, BookingStatus next);
+
+    List<Booking> findByBooker(Long bookerId);
+
+    List<Booking> findByItemIds(Collection<Long> itemIds);
+
+    /** True if no WAITING or APPROVED booking of the item intersects [start, end). */
+    boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    /** Latest approved booking that started at or before {@code now}. */
+    Optional<Booking> findLastApproved(Long itemId, LocalDateTime now);
+
+    /** Earliest approved booking that starts after {@code now}. */
+    Optional<Booking> findNextApproved(Long itemId, LocalDateTime now);
+
+    /**
+     * A number that changes after any booking of the owner's items is created or changes status,
+     * once the change is visible to readers. A store that cannot tell owners apart may change it
+     * on every booking write.
+     */
+    long ownerVersion(Long ownerId);
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.common.exceptions.ConflictException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** In-memory bookings; the per-item timelines are the availability engine. */
+@Repository
+@ConditionalOnProperty(name = "shareit.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryBookingStorage implements BookingStorage {
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> byBooker = new ConcurrentHashMap<>();
+    private final AtomicLong seq = new AtomicLong(1);
+    /** bookings do not survive a restart, so a random start keeps tags of the previous run from matching */
+    private final AtomicLong version = new AtomicLong(ThreadLocalRandom.current().nextLong());
+
+    @Override
+    public Booking save(Booking booking) {
+        booking.setId(seq.getAndIncrement());
+        ItemTimeline timeline = timelines.computeIfAbsent(booking.getItemId(), k -> new ItemTimeline());
+        if (!timeline.tryReserve(booking)) {
+            throw new ConflictException("Item is already booked for these dates");
+        }
+        bookings.put(booking.getId(), booking);
+        byBooker.computeIfAbsent(booking.getBookerId(), k -> new ConcurrentSkipListSet<>()).add(booking.getId());
+        version.incrementAndGet();
+        return booking;
+    }
+
+    @Override
+    public Optional<Booking> findById(Long id) {
+        return Optional.ofNullable(bookings.get(id));
+    }
+
+    @Override
+    public Booking updateStatus(Long id, BookingStatus expected, BookingStatus next) {
+        Booking booking = bookings.get(id);
+        if (booking == null || !timelines.get(booking.getItemId()).transition(booking, expected, next)) {
+            return null;
+        }
+        version.incrementAndGet();
+        return booking;
+    }
+
+    @Override
+    public List<Booking> findByBooker(Long bookerId) {
+        return collect(byBooker.get(bookerId), new ArrayList<>());
+    }
+
+    @Override
+    public List<Booking> findByItemIds(Collection<Long> itemIds) {
+        List<Booking> found = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemTimeline timeline = timelines.get(itemId);
+            if (timeline != null) {
+                collect(timeline.allIds(), found);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null || timeline.isFree(start, end);
+    }
+
+    @Override
+    public Optional<Booking> findLastApproved(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null ? Optional.empty() : Optional.ofNullable(timeline.last(now));
+    }
+
+    @Override
+    public Optional<Booking> findNextApproved(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null ? Optional.empty() : Optional.ofNullable(timeline.next(now));
+    }
+
+    /** One counter for all owners: no owner index is kept here. */
+    @Override
+    public long ownerVersion(Long ownerId) {
+        return version.get();
+    }
+
+    private List<Booking> collect(Collection<Long> ids, List<Booking> target) {
+        if (ids != null) {
+            for (Long id : ids) {
+                Booking booking = bookings.get(id);
+                if (booking != null) {
+                    target.add(booking);
+                }
+            }
+        }
+        return target;
+    }
+}
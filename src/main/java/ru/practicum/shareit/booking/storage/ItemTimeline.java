@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Interval index of one item's bookings. Bookings that hold the slot never overlap, so keyed by
+ * start they form a sorted set of disjoint intervals: the only one that can intersect [start, end)
+ * is the last one starting before {@code end}, which makes the overlap check a single O(log n) lookup.
+ * Writers synchronize on the timeline (one lock per item); readers use the skip lists lock-free.
+ */
+class ItemTimeline {
+    private final NavigableMap<LocalDateTime, Booking> held = new ConcurrentSkipListMap<>();
+    private final NavigableMap<LocalDateTime, Booking> approved = new ConcurrentSkipListMap<>();
+    private final NavigableSet<Long> allIds = new ConcurrentSkipListSet<>();
+
+    synchronized boolean tryReserve(Booking booking) {
+        if (!isFree(booking.getStart(), booking.getEnd())) {
+            return false;
+        }
+        held.put(booking.getStart(), booking);
+        if (booking.getStatus() == BookingStatus.APPROVED) {
+            approved.put(booking.getStart(), booking);
+        }
+        allIds.add(booking.getId());
+        return true;
+    }
+
+    synchronized boolean transition(Booking booking, BookingStatus expected, BookingStatus next) {
+        if (booking.getStatus() != expected) {
+            return false;
+        }
+        booking.setStatus(next);
+        if (next == BookingStatus.APPROVED) {
+            approved.put(booking.getStart(), booking);
+        } else {
+            approved.remove(booking.getStart(), booking);
+        }
+        if (!next.holdsSlot()) {
+            held.remove(booking.getStart(), booking);
+        }
+        return true;
+    }
+
+    boolean isFree(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Booking> previous = held.lowerEntry(end);
+        return previous == null || !previous.getValue().getEnd().isAfter(start);
+    }
+
+    Booking last(LocalDateTime now) {
+        Map.Entry<LocalDateTime, Booking> entry = approved.floorEntry(now);
+        return entry == null ? null : entry.getValue();
+    }
+
+    Booking next(LocalDateTime now) {
+        Map.Entry<LocalDateTime, Booking> entry = approved.higherEntry(now);
+        return entry == null ? null : entry.getValue();
+    }
+
+    NavigableSet<Long> allIds() {
+        return allIds;
+    }
+}
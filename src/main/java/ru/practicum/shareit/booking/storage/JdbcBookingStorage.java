@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.common.exceptions.ConflictException;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Relational booking storage. Bookings outlive their item and booker, so the table has no
+ * foreign keys. Bookings of one item are serialized by a row lock on the item, which makes
+ * the overlap check and the insert atomic just like the in-memory timeline.
+ */
+@Repository
+@ConditionalOnProperty(name = "shareit.storage.type", havingValue = "jdbc")
+public class JdbcBookingStorage implements BookingStorage {
+    private static final String COLUMNS = "id, start_date, end_date, item_id, booker_id, status";
+    private static final String HELD = "status IN ('WAITING', 'APPROVED')";
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcBookingStorage(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    @Transactional
+    public Booking save(Booking booking) {
+        jdbc.queryForList("SELECT id FROM items WHERE id = ? FOR UPDATE", Long.class, booking.getItemId());
+        if (booking.getStatus().holdsSlot() && !isFree(booking.getItemId(), booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Item is already booked for these dates");
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("INSERT INTO bookings (start_date, end_date, item_id, "
+                    + "booker_id, status) VALUES (?, ?, ?, ?, ?)", new String[]{"id"});
+            ps.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+            ps.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+            ps.setLong(3, booking.getItemId());
+            ps.setLong(4, booking.getBookerId());
+            ps.setString(5, booking.getStatus().name());
+            return ps;
+        }, keys);
+        booking.setId(Objects.requireNonNull(keys.getKey()).longValue());
+        return booking;
+    }
+
+    @Override
+    public Optional<Booking> findById(Long id) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM bookings WHERE id = ?", JdbcBookingStorage::mapRow, id)
+                .stream()
+                .findFirst();
+    }
+
+    /** WAITING already holds the slot, so no transition needs the overlap check again. */
+    @Override
+    public Booking updateStatus(Long id, BookingStatus expected, BookingStatus next) {
+        int updated = jdbc.update("UPDATE bookings SET status = ?, version = version + 1 WHERE id = ? AND status = ?",
+                next.name(), id, expected.name());
+        return updated == 0 ? null : findById(id).orElse(null);
+    }
+
+    @Override
+    public List<Booking> findByBooker(Long bookerId) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM bookings WHERE booker_id = ? ORDER BY id",
+                JdbcBookingStorage::mapRow, bookerId);
+    }
+
+    @Override
+    public List<Booking> findByItemIds(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(itemIds.size(), "?"));
+        return jdbc.query("SELECT " + COLUMNS + " FROM bookings WHERE item_id IN (" + placeholders + ") ORDER BY id",
+                JdbcBookingStorage::mapRow, itemIds.toArray());
+    }
+
+    @Override
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Long overlapping = jdbc.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ? AND " + HELD
+                        + " AND start_date < ? AND end_date > ?",
+                Long.class, itemId, Timestamp.valueOf(end), Timestamp.valueOf(start));
+        return overlapping == null || overlapping == 0;
+    }
+
+    @Override
+    public Optional<Booking> findLastApproved(Long itemId, LocalDateTime now) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM bookings WHERE item_id = ? AND status = 'APPROVED' "
+                        + "AND start_date <= ? ORDER BY start_date DESC LIMIT 1",
+                JdbcBookingStorage::mapRow, itemId, Timestamp.valueOf(now)).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Booking> findNextApproved(Long itemId, LocalDateTime now) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM bookings WHERE item_id = ? AND status = 'APPROVED' "
+                        + "AND start_date > ? ORDER BY start_date LIMIT 1",
+                JdbcBookingStorage::mapRow, itemId, Timestamp.valueOf(now)).stream().findFirst();
+    }
+
+    /** Bookings are never deleted, so the sum only grows: +2 per insert, +1 per status change. */
+    @Override
+    public long ownerVersion(Long ownerId) {
+        return Objects.requireNonNull(jdbc.queryForObject("SELECT COALESCE(SUM(b.version), 0) + COUNT(*) "
+                + "FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = ?", Long.class, ownerId));
+    }
+
+    private static Booking mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Booking(rs.getLong("id"), rs.getTimestamp("start_date").toLocalDateTime(),
+                rs.getTimestamp("end_date").toLocalDateTime(), rs.getLong("item_id"), rs.getLong("booker_id"),
+                BookingStatus.valueOf(rs.getString("status")));
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * {@code @Async} service work runs on Boot's applicationTaskExecutor, which follows
+ * {@code spring.threads.virtual.enabled} together with the Tomcat request executor.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
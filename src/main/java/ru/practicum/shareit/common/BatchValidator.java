@@ -0,0 +1,52 @@
+package ru.practicum.shareit.common;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/** Bean-validates every element of a bulk request and reports failures by element index. */
+@Component
+public class BatchValidator {
+    public static final int MAX_SIZE = 10_000;
+
+    private final Validator validator;
+
+    public BatchValidator(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * @return index -> violations; empty when every element is valid
+     * @throws IllegalArgumentException if the batch is empty or larger than {@link #MAX_SIZE}
+     */
+    public <T> Map<Integer, String> validate(List<T> batch) {
+        if (batch == null || batch.isEmpty()) {
+            throw new IllegalArgumentException("Batch must not be empty");
+        }
+        if (batch.size() > MAX_SIZE) {
+            throw new IllegalArgumentException("Batch size " + batch.size() + " exceeds " + MAX_SIZE);
+        }
+        Map<Integer, String> errors = new TreeMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            T element = batch.get(i);
+            if (element == null) {
+                errors.put(i, "element is null");
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(element);
+            if (!violations.isEmpty()) {
+                errors.put(i, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+        return errors;
+    }
+}
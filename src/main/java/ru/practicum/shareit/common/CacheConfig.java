@@ -0,0 +1,16 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the id-keyed read-through caches ("users", "items") in front of the services.
+ * Size/TTL limits are set by spring.cache.caffeine.spec; hit/miss/eviction counters are
+ * published by Actuator as cache.gets and cache.evictions.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.common;
+
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
+
+import java.time.Instant;
+import java.util.StringJoiner;
+
+/**
+ * Validators of one representation: a strong ETag and, for single entities, the Last-Modified
+ * time ({@code -1} when there is none). Entity tags have the form {@code "<id>.<version>[.<more>]"},
+ * so an If-Match header can be turned back into the version it was issued for.
+ */
+public record EntityTag(String etag, long lastModified) {
+
+    public static EntityTag of(long id, long version, Instant updatedAt, Object... more) {
+        StringJoiner tag = new StringJoiner(".", "\"", "\"");
+        tag.add(Long.toString(id)).add(Long.toString(version));
+        for (Object part : more) {
+            tag.add(String.valueOf(part));
+        }
+        return new EntityTag(tag.toString(), updatedAt == null ? -1 : updatedAt.toEpochMilli());
+    }
+
+    /**
+     * Version a PATCH may apply to, from its If-Match header: {@code null} when the header is
+     * absent or {@code *}, otherwise the version of the first tag issued for this id.
+     *
+     * @throws PreconditionFailedException if no listed tag belongs to this id (weak tags never match)
+     */
+    public static Long expectedVersion(String ifMatch, long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + id + ".";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (!tag.startsWith(prefix) || !tag.endsWith("\"")) {
+                continue;
+            }
+            String rest = tag.substring(prefix.length(), tag.length() - 1);
+            int end = rest.indexOf('.');
+            try {
+                return Long.parseLong(end < 0 ? rest : rest.substring(0, end));
+            } catch (NumberFormatException ignored) {
+                // чужой формат тега просто не совпадает
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version of " + id);
+    }
+}
@@ -1,38 +1,75 @@
 package ru.practicum.shareit.common;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.common.exceptions.BatchException;
 import ru.practicum.shareit.common.exceptions.ConflictException;
+import ru.practicum.shareit.common.exceptions.ForbiddenException;
 import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
 
-import java.util.Map;
-
+/**
+ * Maps expected client errors to RFC 7807 problem responses. Each one also carries the old
+ * {@code error} property, so clients that read {@code body.error} keep working.
+ *
+ * <p>Client errors are not incidents: they are logged at WARN without a stack trace, and
+ * only a few per status and second (see {@link ErrorLogBudget}); {@code shareit.errors} counts all.
+ */
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
+    private final ErrorLogBudget logBudget;
+
+    public ErrorHandler(MeterRegistry registry, @Value("${shareit.errors.log-per-second:10}") double logPerSecond) {
+        this.logBudget = new ErrorLogBudget(registry, logPerSecond);
+    }
 
     @ExceptionHandler(NotFoundException.class)
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public Map<String, String> handle404(NotFoundException ex) {
-        log.error("404 Not Found: {}", ex.getMessage(), ex);
-        return Map.of("error", ex.getMessage());
+    public ProblemDetail handle404(NotFoundException ex) {
+        return problem(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(ForbiddenException.class)
+    public ProblemDetail handle403(ForbiddenException ex) {
+        return problem(HttpStatus.FORBIDDEN, ex.getMessage());
     }
 
     @ExceptionHandler(ConflictException.class)
-    @ResponseStatus(HttpStatus.CONFLICT)
-    public Map<String, String> handle409(ConflictException ex) {
-        log.error("409 Conflict: {}", ex.getMessage(), ex);
-        return Map.of("error", ex.getMessage());
+    public ProblemDetail handle409(ConflictException ex) {
+        return problem(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ProblemDetail handle412(PreconditionFailedException ex) {
+        return problem(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(BatchException.class)
+    public ProblemDetail handleBatch(BatchException ex) {
+        ProblemDetail problem = problem(ex.getStatus(), ex.getMessage());
+        problem.setProperty("errors", ex.getErrors());
+        return problem;
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public Map<String, String> handle400(IllegalArgumentException ex) {
-        log.error("400 Bad Request: {}", ex.getMessage(), ex);
-        return Map.of("error", ex.getMessage());
+    public ProblemDetail handle400(IllegalArgumentException ex) {
+        return problem(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
-}
 
+    private ProblemDetail problem(HttpStatus status, String message) {
+        long skipped = logBudget.admit(status.value());
+        if (skipped == 0) {
+            log.warn("{} {}: {}", status.value(), status.getReasonPhrase(), message);
+        } else if (skipped > 0) {
+            log.warn("{} {}: {} ({} more not logged)", status.value(), status.getReasonPhrase(), message, skipped);
+        }
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, message);
+        problem.setProperty("error", message);
+        return problem;
+    }
+}
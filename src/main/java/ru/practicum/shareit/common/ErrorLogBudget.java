@@ -0,0 +1,42 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.practicum.shareit.common.limit.TokenBucketLimiter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts every error response in {@code shareit.errors{status}} but lets only a few per status
+ * and second reach the log; the next line that gets through says how many were skipped.
+ */
+final class ErrorLogBudget {
+    static final String ERRORS = "shareit.errors";
+
+    private final MeterRegistry registry;
+    private final TokenBucketLimiter limiter;
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> skipped = new ConcurrentHashMap<>();
+
+    ErrorLogBudget(MeterRegistry registry, double linesPerSecond) {
+        this.registry = registry;
+        this.limiter = new TokenBucketLimiter(linesPerSecond, (int) Math.max(1, Math.ceil(linesPerSecond)),
+                System::nanoTime);
+    }
+
+    /** @return -1 to stay quiet, otherwise how many errors of this status went unlogged since the last line */
+    long admit(int status) {
+        counters.computeIfAbsent(status, s -> Counter.builder(ERRORS)
+                .description("Error responses by status")
+                .tag("status", Integer.toString(s))
+                .register(registry)).increment();
+        AtomicLong unlogged = skipped.computeIfAbsent(status, s -> new AtomicLong());
+        if (limiter.tryAcquire(status) > 0) {
+            unlogged.incrementAndGet();
+            return -1;
+        }
+        return unlogged.getAndSet(0);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.common;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * DataSource for {@code shareit.storage.type=jdbc}. DataSourceAutoConfiguration is excluded in
+ * application.properties so that the default in-memory mode starts without a database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.storage.type", havingValue = "jdbc")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class JdbcStorageConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * List responses written element by element straight into the servlet stream, through
+ * Jackson's recycled generator buffers. An exception thrown before the first buffer is flushed
+ * (8 KB; every argument check runs before the first element) leaves the response untouched for
+ * {@link ErrorHandler}. The body is UTF-8 and, as with Jackson's converter, no charset is declared.
+ */
+public final class JsonArrayResponse {
+    private final JsonGenerator gen;
+
+    private JsonArrayResponse(JsonGenerator gen) {
+        this.gen = gen;
+    }
+
+    /** Elements write themselves through {@link #element}, which rethrows I/O errors unchecked. */
+    public static void write(ObjectMapper mapper, HttpServletResponse response,
+                             Consumer<JsonArrayResponse> body) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator gen = mapper.getFactory().createGenerator(response.getOutputStream());
+        gen.writeStartArray();
+        body.accept(new JsonArrayResponse(gen));
+        gen.writeEndArray();
+        gen.close();
+    }
+
+    public void element(Element element) {
+        try {
+            element.write(gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Element {
+        void write(JsonGenerator gen) throws IOException;
+    }
+}
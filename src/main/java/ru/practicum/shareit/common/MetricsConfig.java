@@ -0,0 +1,56 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.lang.reflect.Modifier;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Adds {@link TimedOperations} to item/user services and storages: to the front of the
+     * caching or transactional proxy a bean already has, so timers include cache hits, or to a
+     * new class-based proxy, so beans can still be injected by their concrete type. Final and
+     * private classes cannot be subclassed and get an interface-based proxy instead.
+     */
+    @Bean
+    static TimedOperationsPostProcessor timedOperations(ObjectProvider<MeterRegistry> registry) {
+        return new TimedOperationsPostProcessor(registry);
+    }
+
+    @Bean
+    MeterBinder storedCounts(ItemStorage items, UserStorage users) {
+        return registry -> {
+            Gauge.builder("shareit.items.count", items, ItemStorage::count)
+                    .description("Number of stored items")
+                    .register(registry);
+            Gauge.builder("shareit.users.count", users, UserStorage::count)
+                    .description("Number of stored users")
+                    .register(registry);
+        };
+    }
+
+    static class TimedOperationsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+        TimedOperationsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+            advisor = new DefaultPointcutAdvisor(TimedOperations.POINTCUT, new TimedOperations(registry::getObject));
+            beforeExistingAdvisors = true;
+        }
+
+        @Override
+        protected void customizeProxyFactory(ProxyFactory proxyFactory) {
+            int modifiers = proxyFactory.getTargetClass().getModifiers();
+            proxyFactory.setProxyTargetClass(!Modifier.isFinal(modifiers) && !Modifier.isPrivate(modifiers));
+        }
+    }
+}
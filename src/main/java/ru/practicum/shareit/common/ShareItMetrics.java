@@ -0,0 +1,36 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Meter definitions shared by {@link TimedOperations} and the services. Meters are registered once
+ * per operation, so the hot path is a pair of {@code nanoTime()} calls and a lock-free histogram update.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ShareItMetrics {
+    public static final String SERVICE = "shareit.service";
+    public static final String STORAGE = "shareit.storage";
+    public static final String SEARCH_RESULTS = "shareit.search.results";
+
+    /** Latency with p50/p95/p99 plus histogram buckets for Prometheus {@code histogram_quantile}. */
+    public static Timer timer(MeterRegistry registry, String name, String component, String operation) {
+        return Timer.builder(name)
+                .tag("component", component)
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public static DistributionSummary searchResults(MeterRegistry registry) {
+        return DistributionSummary.builder(SEARCH_RESULTS)
+                .description("Number of items returned per search query")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .serviceLevelObjectives(1, 5, 10, 20, 50, 100, 500, 1000, 10_000)
+                .register(registry);
+    }
+}
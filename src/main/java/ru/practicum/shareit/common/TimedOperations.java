@@ -0,0 +1,97 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.util.ReflectionUtils;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.common.ShareItMetrics.SERVICE;
+import static ru.practicum.shareit.common.ShareItMetrics.STORAGE;
+
+/**
+ * Records a latency timer per operation of the item/user services and storages. Every method of
+ * those interfaces is timed as {@code <meter>{component, operation=<method name>}}, except
+ * {@code count}, which backs a gauge. Being advice rather than a wrapper, it joins whatever
+ * proxy the bean already has, so new interface methods are timed without further code and
+ * transactional methods stay transactional.
+ */
+public class TimedOperations implements MethodInterceptor {
+    private static final Map<Class<?>, String[]> TIMED = Map.of(
+            ItemService.class, new String[]{SERVICE, "item"},
+            UserService.class, new String[]{SERVICE, "user"},
+            ItemStorage.class, new String[]{STORAGE, "item"},
+            UserStorage.class, new String[]{STORAGE, "user"});
+
+    /** Public methods of the timed interfaces, on any implementation of them. */
+    public static final Pointcut POINTCUT = new Pointcut() {
+        @Override
+        public ClassFilter getClassFilter() {
+            return type -> timedInterface(type) != null;
+        }
+
+        @Override
+        public MethodMatcher getMethodMatcher() {
+            return new StaticMethodMatcher() {
+                @Override
+                public boolean matches(Method method, Class<?> targetClass) {
+                    Class<?> timed = timedInterface(targetClass);
+                    return timed != null && !method.getName().equals("count")
+                            && ReflectionUtils.findMethod(timed, method.getName(), method.getParameterTypes()) != null;
+                }
+            };
+        }
+    };
+
+    private final Supplier<MeterRegistry> registry;
+    /** meters are registered once per method, so the hot path is a map lookup and two nanoTime() calls */
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedOperations(Supplier<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, this::timer);
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Method method) {
+        String[] meter = TIMED.get(timedInterface(method.getDeclaringClass()));
+        return ShareItMetrics.timer(registry.get(), meter[0], meter[1], method.getName());
+    }
+
+    /** The timed interface {@code type} implements, if any. */
+    private static Class<?> timedInterface(Class<?> type) {
+        for (Class<?> timed : TIMED.keySet()) {
+            if (timed.isAssignableFrom(type)) {
+                return timed;
+            }
+        }
+        return null;
+    }
+}
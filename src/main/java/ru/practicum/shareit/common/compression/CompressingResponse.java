@@ -0,0 +1,363 @@
+package ru.practicum.shareit.common.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Holds back the first {@code minSize} bytes of the body. A body that ends below that goes out
+ * as is, with its length; a longer one of a compressible type is gzipped from then on, streaming
+ * through a pooled {@link Deflater}, so nothing beyond the threshold is ever buffered.
+ * Flushes before the decision are held back too; after it they are passed on (as a zlib sync
+ * flush when compressing).
+ *
+ * <p>A gzipped body is a different representation, so its entity tag gets a {@link #TAG_SUFFIX}
+ * inside the quotes; a 304 answering a suffixed tag keeps the suffix.
+ */
+final class CompressingResponse extends HttpServletResponseWrapper {
+    static final String TAG_SUFFIX = "-gzip";
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int CHUNK = 8192;
+
+    private enum State { UNDECIDED, IDENTITY, GZIP }
+
+    private final DeflaterPool pool;
+    private final byte[] pending;
+    private int pendingLength;
+    private State state = State.UNDECIDED;
+    /** length the application declared while undecided; only an identity body keeps it */
+    private long declaredLength = -1;
+    private Deflater deflater;
+    private byte[] chunk;
+    private final CRC32 crc = new CRC32();
+    private long rawBytes;
+    private long wireBytes;
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+    /** the request's If-None-Match named a gzip tag, so a 304 must name it too */
+    private boolean validatingGzipTag;
+
+    CompressingResponse(HttpServletResponse response, DeflaterPool pool, int minSize) {
+        super(response);
+        this.pool = pool;
+        this.pending = new byte[minSize];
+    }
+
+    boolean compressed() {
+        return state == State.GZIP;
+    }
+
+    long rawBytes() {
+        return rawBytes;
+    }
+
+    long wireBytes() {
+        return wireBytes;
+    }
+
+    void validatingGzipTag() {
+        validatingGzipTag = true;
+    }
+
+    /** {@code "1.2"} becomes {@code "1.2-gzip"}, {@code W/"x"} becomes {@code W/"x-gzip"}. */
+    static String gzipTag(String etag) {
+        if (etag == null || !etag.endsWith("\"") || etag.endsWith(TAG_SUFFIX + "\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + TAG_SUFFIX + "\"";
+    }
+
+    /** Turns the gzip tags of an If-Match or If-None-Match value back into the tags the application issued. */
+    static String identityTags(String header) {
+        return header == null ? null : header.replace(TAG_SUFFIX + "\"", "\"");
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (stream == null) {
+            stream = new Body();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+            stream = new Body();
+            writer = new PrintWriter(new OutputStreamWriter(stream, charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (state == State.UNDECIDED) {
+            declaredLength = len;
+        } else if (state == State.IDENTITY) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+        } else if (HttpHeaders.ETAG.equalsIgnoreCase(name) && state == State.GZIP) {
+            super.setHeader(name, gzipTag(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) || HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+            setHeader(name, value);
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state != State.UNDECIDED) {
+            flushBody();
+            super.flushBuffer();
+        }
+    }
+
+    /** Headers stay, so a gzip body starts over as a new gzip stream. */
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        pendingLength = 0;
+        if (state == State.GZIP) {
+            deflater.reset();
+            crc.reset();
+            rawBytes = 0;
+            wireBytes = 0;
+            try {
+                writeThrough(GZIP_HEADER, 0, GZIP_HEADER.length);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /** Headers go too, so the body is undecided again. */
+    @Override
+    public void reset() {
+        super.reset();
+        release();
+        state = State.UNDECIDED;
+        pendingLength = 0;
+        declaredLength = -1;
+        crc.reset();
+        rawBytes = 0;
+        wireBytes = 0;
+    }
+
+    /** Sends what is still held back and ends the gzip stream; called once the chain is done. */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == State.UNDECIDED) {
+            if (pendingLength > 0 || declaredLength >= 0) {
+                super.setContentLengthLong(pendingLength > 0 ? pendingLength : declaredLength);
+            }
+            if (pendingLength > 0) {
+                rawBytes += pendingLength;
+                writeThrough(pending, 0, pendingLength);
+            }
+            if (validatingGzipTag && getStatus() == SC_NOT_MODIFIED && !isCommitted()) {
+                super.setHeader(HttpHeaders.ETAG, gzipTag(getHeader(HttpHeaders.ETAG)));
+            }
+            state = State.IDENTITY;
+        } else if (state == State.GZIP) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                drain(Deflater.NO_FLUSH);
+            }
+            byte[] trailer = new byte[8];
+            writeIntLe(trailer, 0, (int) crc.getValue());
+            writeIntLe(trailer, 4, (int) rawBytes);
+            writeThrough(trailer, 0, trailer.length);
+            release();
+        }
+    }
+
+    /** Returns the deflater to the pool; safe to call more than once and after a failure. */
+    void release() {
+        if (deflater != null) {
+            pool.release(deflater);
+            deflater = null;
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (state == State.UNDECIDED) {
+            if (pendingLength + len < pending.length) {
+                System.arraycopy(b, off, pending, pendingLength, len);
+                pendingLength += len;
+                return;
+            }
+            decide();
+            int held = pendingLength;
+            pendingLength = 0;
+            write(pending, 0, held);
+            write(b, off, len);
+        } else if (state == State.IDENTITY) {
+            rawBytes += len;
+            writeThrough(b, off, len);
+        } else {
+            crc.update(b, off, len);
+            rawBytes += len;
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                drain(Deflater.NO_FLUSH);
+            }
+        }
+    }
+
+    /** The body has outgrown the threshold: gzip it if the type compresses and nothing else encoded it. */
+    private void decide() throws IOException {
+        if (!compressible(getContentType()) || containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            state = State.IDENTITY;
+            if (declaredLength >= 0) {
+                super.setContentLengthLong(declaredLength);
+            }
+            return;
+        }
+        state = State.GZIP;
+        super.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        if (containsHeader(HttpHeaders.ETAG)) {
+            super.setHeader(HttpHeaders.ETAG, gzipTag(getHeader(HttpHeaders.ETAG)));
+        }
+        deflater = pool.borrow();
+        chunk = new byte[CHUNK];
+        writeThrough(GZIP_HEADER, 0, GZIP_HEADER.length);
+    }
+
+    private void flushBody() throws IOException {
+        if (state == State.GZIP) {
+            int n;
+            do {
+                n = drain(Deflater.SYNC_FLUSH);
+            } while (n == CHUNK);
+        }
+        getResponse().getOutputStream().flush();
+    }
+
+    private int drain(int flush) throws IOException {
+        int n = deflater.deflate(chunk, 0, CHUNK, flush);
+        if (n > 0) {
+            writeThrough(chunk, 0, n);
+        }
+        return n;
+    }
+
+    private void writeThrough(byte[] b, int off, int len) throws IOException {
+        getResponse().getOutputStream().write(b, off, len);
+        wireBytes += len;
+    }
+
+    static boolean compressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType type;
+        try {
+            type = MediaType.parseMediaType(contentType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        String subtype = type.getSubtype();
+        return "text".equals(type.getType()) || "json".equals(subtype) || subtype.endsWith("+json")
+                || "x-ndjson".equals(subtype);
+    }
+
+    private static void writeIntLe(byte[] b, int off, int value) {
+        b[off] = (byte) value;
+        b[off + 1] = (byte) (value >>> 8);
+        b[off + 2] = (byte) (value >>> 16);
+        b[off + 3] = (byte) (value >>> 24);
+    }
+
+    private final class Body extends ServletOutputStream {
+        private final byte[] one = new byte[1];
+
+        @Override
+        public void write(int b) throws IOException {
+            one[0] = (byte) b;
+            CompressingResponse.this.write(one, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            CompressingResponse.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (state != State.UNDECIDED) {
+                flushBody();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            try {
+                getResponse().getOutputStream().setWriteListener(listener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
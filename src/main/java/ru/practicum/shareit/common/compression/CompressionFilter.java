@@ -0,0 +1,179 @@
+package ru.practicum.shareit.common.compression;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Gzips {@code /items} and {@code /users} responses for clients that accept it, once a body
+ * reaches {@code shareit.compression.min-size}: a single item or user stays uncompressed and costs
+ * no deflate time, while list pages of repetitive JSON shrink several times over. Deflaters come
+ * from a {@link DeflaterPool}. A gzipped body carries its entity tag with a {@code -gzip} suffix,
+ * so caches never take it for the identity one; the suffix is stripped from {@code If-Match} and
+ * {@code If-None-Match} before the application sees them, so version checks and 304s still work.
+ *
+ * <p>An async request is finished by its last dispatch, which finds the wrapper started by the first.
+ *
+ * <p>Bytes before and after compression are counted in {@code shareit.compression.bytes{side}}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.compression.enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionFilter extends OncePerRequestFilter {
+    private static final String BYTES = "shareit.compression.bytes";
+    private static final String RESPONSES = "shareit.compression.responses";
+
+    private final DeflaterPool pool;
+    private final int minSize;
+    private final Counter rawBytes;
+    private final Counter wireBytes;
+    private final Counter compressed;
+    private final Counter identity;
+
+    public CompressionFilter(@Value("${shareit.compression.min-size:2048}") int minSize,
+                             @Value("${shareit.compression.level:6}") int level,
+                             @Value("${shareit.compression.pool-size:64}") int poolSize,
+                             MeterRegistry registry) {
+        this.pool = new DeflaterPool(level, poolSize);
+        this.minSize = minSize;
+        this.rawBytes = Counter.builder(BYTES).tag("side", "raw").register(registry);
+        this.wireBytes = Counter.builder(BYTES).tag("side", "wire").register(registry);
+        this.compressed = Counter.builder(RESPONSES).tag("encoding", "gzip").register(registry);
+        this.identity = Counter.builder(RESPONSES).tag("encoding", "identity").register(registry);
+        Gauge.builder("shareit.compression.idle-deflaters", pool, DeflaterPool::idle)
+                .description("Deflaters waiting in the pool")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return HttpMethod.HEAD.matches(request.getMethod())
+                || !(path.startsWith("/items") || path.startsWith("/users"));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpServletRequest validated = stripGzipTags(request);
+        CompressingResponse compressing = WebUtils.getNativeResponse(response, CompressingResponse.class);
+        if (compressing == null) {
+            if (isAsyncDispatch(request)) {
+                chain.doFilter(validated, response);
+                return;
+            }
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                chain.doFilter(validated, response);
+                return;
+            }
+            compressing = new CompressingResponse(response, pool, minSize);
+            response = compressing;
+        }
+        if (namesGzipTag(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            compressing.validatingGzipTag();
+        }
+        try {
+            chain.doFilter(validated, response);
+            if (isAsyncStarted(request)) {
+                return;
+            }
+            compressing.finish();
+        } finally {
+            if (!isAsyncStarted(request)) {
+                compressing.release();
+            }
+        }
+        (compressing.compressed() ? compressed : identity).increment();
+        rawBytes.increment(compressing.rawBytes());
+        wireBytes.increment(compressing.wireBytes());
+    }
+
+    /** {@code gzip} (or {@code x-gzip}) with a non-zero quality; {@code *} counts only if gzip is not listed. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean any = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip = Boolean.TRUE.equals(gzip) || quality(params) > 0;
+            } else if (coding.equals("*")) {
+                any = quality(params) > 0;
+            }
+        }
+        return gzip != null ? gzip : any;
+    }
+
+    /** The request itself when it names no gzip tag; most requests name no tag at all. */
+    private static HttpServletRequest stripGzipTags(HttpServletRequest request) {
+        if (!namesGzipTag(request.getHeader(HttpHeaders.IF_MATCH))
+                && !namesGzipTag(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return request;
+        }
+        return new HttpServletRequestWrapper(request) {
+            @Override
+            public String getHeader(String name) {
+                String value = super.getHeader(name);
+                return isValidator(name) ? CompressingResponse.identityTags(value) : value;
+            }
+
+            @Override
+            public Enumeration<String> getHeaders(String name) {
+                Enumeration<String> values = super.getHeaders(name);
+                if (!isValidator(name)) {
+                    return values;
+                }
+                return Collections.enumeration(Collections.list(values).stream()
+                        .map(CompressingResponse::identityTags)
+                        .toList());
+            }
+        };
+    }
+
+    private static boolean namesGzipTag(String header) {
+        return header != null && header.contains(CompressingResponse.TAG_SUFFIX + "\"");
+    }
+
+    private static boolean isValidator(String name) {
+        return HttpHeaders.IF_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name);
+    }
+
+    /** Malformed weights count as a refusal. */
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=") || param.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
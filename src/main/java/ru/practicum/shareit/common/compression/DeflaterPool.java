@@ -0,0 +1,39 @@
+package ru.practicum.shareit.common.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Raw-deflate {@link Deflater}s for gzip bodies, reset and reused: a new one sets up its native
+ * zlib state (a few hundred KB) for every response. Up to {@code capacity} idle ones are kept,
+ * any beyond that are ended at once.
+ */
+final class DeflaterPool {
+    private final BlockingQueue<Deflater> idle;
+    private final int level;
+
+    DeflaterPool(int level, int capacity) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9");
+        }
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.level = level;
+    }
+
+    Deflater borrow() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, true);
+    }
+
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    int idle() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.common.events;
+
+import java.time.Instant;
+
+/**
+ * One committed mutation, as seen by downstream consumers. {@code offset} is the position in
+ * the {@link ChangeLog}; a consumer resumes from the offset after the last one it processed.
+ * {@code version} is the entity version after the change ({@code 0} for deletions).
+ */
+public record ChangeEvent(long offset, Entity entity, Type type, long id, long version, Instant at) {
+
+    public enum Entity { ITEM, USER }
+
+    public enum Type { CREATED, UPDATED, DELETED }
+}
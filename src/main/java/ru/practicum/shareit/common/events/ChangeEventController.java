@@ -0,0 +1,61 @@
+package ru.practicum.shareit.common.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * Change stream of items and users for downstream systems. Without {@code from} a consumer
+ * starts at the current head and sees only new changes; afterwards it resumes from the
+ * {@code next} offset of its last batch (long-poll) or through {@code Last-Event-ID} (SSE).
+ */
+@RestController
+@RequestMapping("/events")
+public class ChangeEventController {
+    private static final int MAX_BATCH = 10_000;
+    private static final int MAX_WAIT_SECONDS = 60;
+
+    private final ChangeLog changeLog;
+    private final ChangeFeed feed;
+
+    public ChangeEventController(ChangeLog changeLog, ChangeFeed feed) {
+        this.changeLog = changeLog;
+        this.feed = feed;
+    }
+
+    /** Long-poll: returns as soon as there are changes after {@code from}, or an empty batch after {@code wait} seconds. */
+    @GetMapping
+    public DeferredResult<ChangeLog.Batch> poll(@RequestParam(required = false) Long from,
+                                                @RequestParam(defaultValue = "500") int max,
+                                                @RequestParam(defaultValue = "true") boolean coalesce,
+                                                @RequestParam(defaultValue = "30") int wait) {
+        checkMax(max);
+        if (wait < 0 || wait > MAX_WAIT_SECONDS) {
+            throw new IllegalArgumentException("wait must be between 0 and " + MAX_WAIT_SECONDS + " seconds");
+        }
+        return feed.poll(from == null ? changeLog.head() : from, max, coalesce, Duration.ofSeconds(wait));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             @RequestParam(required = false) Long from,
+                             @RequestParam(defaultValue = "500") int max,
+                             @RequestParam(defaultValue = "true") boolean coalesce) {
+        checkMax(max);
+        long start = lastEventId != null ? lastEventId + 1 : from != null ? from : changeLog.head();
+        return feed.stream(start, max, coalesce);
+    }
+
+    private static void checkMax(int max) {
+        if (max <= 0 || max > MAX_BATCH) {
+            throw new IllegalArgumentException("max must be between 1 and " + MAX_BATCH);
+        }
+    }
+}
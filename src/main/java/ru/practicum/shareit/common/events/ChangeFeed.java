@@ -0,0 +1,207 @@
+package ru.practicum.shareit.common.events;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the {@link ChangeLog} to long-poll and SSE consumers. Writers do not signal anyone:
+ * one dispatcher thread compares each waiting consumer's offset with the log head every
+ * {@code shareit.events.poll-interval}, so delivery lags by at most that much and the write
+ * path pays nothing for having consumers. Sends run on virtual threads, one at a time per
+ * consumer, so a slow SSE client only holds up itself.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final ChangeLog changeLog;
+    private final Duration sseTimeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ChangeFeed(ChangeLog changeLog,
+                      @Value("${shareit.events.poll-interval:20ms}") Duration pollInterval,
+                      @Value("${shareit.events.sse-timeout:30m}") Duration sseTimeout,
+                      MeterRegistry registry) {
+        this.changeLog = changeLog;
+        this.sseTimeout = sseTimeout;
+        FunctionCounter.builder("shareit.events.published", changeLog, ChangeLog::head)
+                .description("Change events written to the change log")
+                .register(registry);
+        Gauge.builder("shareit.events.subscribers", subscribers, Set::size)
+                .description("Long-poll and SSE consumers waiting for changes")
+                .register(registry);
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shareit-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = pollInterval.toNanos();
+        dispatcher.scheduleWithFixedDelay(this::dispatch, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /** Answers at once if there is something after {@code from}, otherwise when it appears or after {@code wait}. */
+    public DeferredResult<ChangeLog.Batch> poll(long from, int max, boolean coalesce, Duration wait) {
+        DeferredResult<ChangeLog.Batch> result = new DeferredResult<>(wait.toMillis(),
+                () -> new ChangeLog.Batch(List.of(), from, false));
+        ChangeLog.Batch batch = changeLog.read(from, max, coalesce);
+        if (!batch.events().isEmpty() || batch.truncated() || wait.isZero()) {
+            result.setResult(batch);
+            return result;
+        }
+        Subscriber subscriber = new Subscriber(from, max, coalesce) {
+            @Override
+            boolean deliver(ChangeLog.Batch batch) {
+                result.setResult(batch);
+                return false;
+            }
+        };
+        result.onCompletion(() -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return result;
+    }
+
+    /**
+     * Every event becomes an SSE {@code change} with the event offset as its id, so a reconnecting
+     * client resumes through {@code Last-Event-ID}. A lost stretch is announced as a
+     * {@code truncated} event carrying the offset the stream continues from.
+     */
+    public SseEmitter stream(long from, int max, boolean coalesce) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(from, max, coalesce) {
+            @Override
+            boolean drains() {
+                return true;
+            }
+
+            @Override
+            boolean deliver(ChangeLog.Batch batch) {
+                try {
+                    if (batch.truncated()) {
+                        emitter.send(SseEmitter.event().name("truncated").data(Map.of("next", batch.next())));
+                    }
+                    for (ChangeEvent event : batch.events()) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.offset()))
+                                .name("change")
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                    return true;
+                } catch (IOException | IllegalStateException e) {
+                    // клиент ушёл; контейнер сам завершит запрос
+                    return false;
+                }
+            }
+
+            @Override
+            boolean heartbeat() {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                    return true;
+                } catch (IOException | IllegalStateException e) {
+                    return false;
+                }
+            }
+        };
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void close() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private void dispatch() {
+        long head = changeLog.head();
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            boolean due = subscriber.next != head;
+            boolean idle = now - subscriber.lastSent > HEARTBEAT_NANOS;
+            if ((due || idle) && subscriber.busy.compareAndSet(false, true)) {
+                senders.execute(() -> send(subscriber, due, now));
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, boolean due, long now) {
+        try {
+            boolean keep = true;
+            boolean sent = false;
+            ChangeLog.Batch batch = due ? changeLog.read(subscriber.next, subscriber.max, subscriber.coalesce) : null;
+            while (batch != null && (!batch.events().isEmpty() || batch.truncated())) {
+                keep = subscriber.deliver(batch);
+                subscriber.next = batch.next();
+                subscriber.lastSent = now;
+                sent = true;
+                batch = keep && subscriber.drains() && batch.next() != changeLog.head()
+                        ? changeLog.read(subscriber.next, subscriber.max, subscriber.coalesce) : null;
+            }
+            if (!sent && now - subscriber.lastSent > HEARTBEAT_NANOS) {
+                keep = subscriber.heartbeat();
+                subscriber.lastSent = now;
+            }
+            if (!keep) {
+                subscribers.remove(subscriber);
+            }
+        } catch (RuntimeException e) {
+            subscribers.remove(subscriber);
+            log.warn("Change feed delivery failed: {}", e.getMessage());
+        } finally {
+            subscriber.busy.set(false);
+        }
+    }
+
+    /** A consumer waiting at {@link #next}; only the dispatcher's sender for it touches its state. */
+    private abstract static class Subscriber {
+        final int max;
+        final boolean coalesce;
+        final AtomicBoolean busy = new AtomicBoolean();
+        volatile long next;
+        volatile long lastSent = System.nanoTime();
+
+        Subscriber(long next, int max, boolean coalesce) {
+            this.next = next;
+            this.max = max;
+            this.coalesce = coalesce;
+        }
+
+        /** Whether to keep sending batches until caught up, rather than one per dispatch. */
+        boolean drains() {
+            return false;
+        }
+
+        /** @return whether the consumer stays subscribed */
+        abstract boolean deliver(ChangeLog.Batch batch);
+
+        boolean heartbeat() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.common.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded in-memory change stream. Publishing claims an offset with one {@code getAndIncrement}
+ * and stores the event into slot {@code offset % capacity} with a CAS, so writers never lock or
+ * wait for readers; once the ring wraps, the oldest events are overwritten.
+ *
+ * <p>Readers resume from an offset. A reader that fell more than {@code capacity} behind, or
+ * asks for an offset from before a restart (offsets start at 0 with every process), gets a
+ * {@link Batch#truncated() truncated} batch from the oldest retained event and has to resync,
+ * e.g. from {@code GET /items/export}.
+ */
+@Component
+public class ChangeLog {
+    private final AtomicReferenceArray<ChangeEvent> slots;
+    private final int mask;
+    /** next offset to hand out */
+    private final AtomicLong head = new AtomicLong();
+
+    public ChangeLog(@Value("${shareit.events.capacity:65536}") int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Change log capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Called after the change is committed; never blocks. {@code at} is the commit time the store
+     * already stamped on the entity, or {@code null} to use the current time: reading the clock
+     * costs more than the rest of the call.
+     */
+    public void publish(ChangeEvent.Entity entity, ChangeEvent.Type type, long id, long version, Instant at) {
+        long offset = head.getAndIncrement();
+        ChangeEvent event = new ChangeEvent(offset, entity, type, id, version, at != null ? at : Instant.now());
+        int slot = (int) (offset & mask);
+        while (true) {
+            ChangeEvent current = slots.get(slot);
+            // писатель, вытесненный на целый круг, не затирает более новое событие
+            if (current != null && current.offset() > offset) {
+                return;
+            }
+            if (slots.compareAndSet(slot, current, event)) {
+                return;
+            }
+        }
+    }
+
+    /** Offset the next event will get. */
+    public long head() {
+        return head.get();
+    }
+
+    /**
+     * Up to {@code max} events from {@code from} on, stopping early at an offset that is claimed
+     * but not yet stored. With {@code coalesce}, repeated changes of one entity within the batch
+     * collapse into the latest; a deletion is never replaced.
+     */
+    public Batch read(long from, int max, boolean coalesce) {
+        long end = head.get();
+        long oldest = Math.max(0, end - slots.length());
+        boolean truncated = from < oldest || from > end;
+        long next = truncated ? oldest : from;
+        List<ChangeEvent> events = new ArrayList<>(Math.min(max, 256));
+        while (next < end && events.size() < max) {
+            ChangeEvent event = slots.get((int) (next & mask));
+            if (event == null || event.offset() < next) {
+                break;
+            }
+            if (event.offset() > next) {
+                // кольцо обогнало читателя прямо во время чтения
+                truncated = true;
+                next = Math.max(next + 1, head.get() - slots.length());
+                continue;
+            }
+            events.add(event);
+            next++;
+        }
+        return new Batch(coalesce ? coalesce(events) : events, next, truncated);
+    }
+
+    private static List<ChangeEvent> coalesce(List<ChangeEvent> events) {
+        if (events.size() < 2) {
+            return events;
+        }
+        Map<Long, ChangeEvent> latest = new LinkedHashMap<>();
+        for (ChangeEvent event : events) {
+            long key = event.id() << 1 | event.entity().ordinal();
+            ChangeEvent prior = latest.get(key);
+            if (prior != null && (prior.type() == ChangeEvent.Type.DELETED
+                    || event.type() != ChangeEvent.Type.DELETED && event.version() < prior.version())) {
+                continue;
+            }
+            // переносим в конец, чтобы порядок отражал последнее изменение
+            latest.remove(key);
+            latest.put(key, event);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * @param events    changes in offset order
+     * @param next      offset to resume from
+     * @param truncated events between the requested offset and the first returned one were lost
+     */
+    public record Batch(List<ChangeEvent> events, long next, boolean truncated) {
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.common.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/** A batch was rejected as a whole; {@link #getErrors()} maps element index to the reason. */
+public class BatchException extends ClientErrorException {
+    private final HttpStatus status;
+    private final SortedMap<Integer, String> errors;
+
+    public BatchException(HttpStatus status, Map<Integer, String> errors) {
+        super("Batch rejected: " + errors.size() + " invalid element(s)");
+        this.status = status;
+        this.errors = Collections.unmodifiableSortedMap(new TreeMap<>(errors));
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public SortedMap<Integer, String> getErrors() {
+        return errors;
+    }
+}
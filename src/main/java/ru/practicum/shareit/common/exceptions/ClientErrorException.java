@@ -0,0 +1,12 @@
+package ru.practicum.shareit.common.exceptions;
+
+/**
+ * An expected client error, answered with a 4xx. These are thrown at request rates (scrapers
+ * probing random ids), so they skip the stack trace, which is most of what creating an exception
+ * costs, and nobody reads it for a 404 anyway.
+ */
+public abstract class ClientErrorException extends RuntimeException {
+    protected ClientErrorException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,6 @@
 package ru.practicum.shareit.common.exceptions;
 
-public class ConflictException extends RuntimeException {
+public class ConflictException extends ClientErrorException {
     public ConflictException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.common.exceptions;
+
+public class ForbiddenException extends ClientErrorException {
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
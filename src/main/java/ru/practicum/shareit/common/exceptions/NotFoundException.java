@@ -1,6 +1,6 @@
 package ru.practicum.shareit.common.exceptions;
 
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends ClientErrorException {
     public NotFoundException(String message) {
         super(message);
     }
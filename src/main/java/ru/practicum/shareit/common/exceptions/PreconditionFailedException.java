@@ -0,0 +1,8 @@
+package ru.practicum.shareit.common.exceptions;
+
+/** The If-Match precondition of a write no longer holds; mapped to 412. */
+public class PreconditionFailedException extends ClientErrorException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
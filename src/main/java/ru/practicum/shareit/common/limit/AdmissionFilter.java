@@ -0,0 +1,129 @@
+package ru.practicum.shareit.common.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of {@code /items} and {@code /users}:
+ * <ul>
+ *     <li>writes carrying {@code X-Sharer-User-Id} take a token from that user's bucket,
+ *     otherwise 429 with {@code Retry-After};</li>
+ *     <li>every request needs one of a fixed number of permits, otherwise 503. Excess load is
+ *     turned away at once instead of queueing in front of the stores until latency collapses.</li>
+ * </ul>
+ * Both checks are a CAS on the happy path; rejections are counted in {@code shareit.admission.rejected}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.limits.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionFilter extends OncePerRequestFilter {
+    static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String REJECTED = "shareit.admission.rejected";
+
+    private final TokenBucketLimiter userLimiter;
+    private final Semaphore permits;
+    private final Counter rateRejections;
+    private final Counter concurrencyRejections;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionFilter(@Value("${shareit.limits.user-writes-per-second}") double userWritesPerSecond,
+                           @Value("${shareit.limits.user-burst}") int userBurst,
+                           @Value("${shareit.limits.max-concurrent-requests}") int maxConcurrentRequests,
+                           MeterRegistry registry, ObjectMapper objectMapper) {
+        this.userLimiter = new TokenBucketLimiter(userWritesPerSecond, userBurst, System::nanoTime);
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.rateRejections = Counter.builder(REJECTED).tag("reason", "rate").register(registry);
+        this.concurrencyRejections = Counter.builder(REJECTED).tag("reason", "concurrency").register(registry);
+        this.objectMapper = objectMapper;
+        Gauge.builder("shareit.admission.in-flight", permits, p -> maxConcurrentRequests - p.availablePermits())
+                .description("Requests holding an admission permit")
+                .register(registry);
+        Gauge.builder("shareit.admission.buckets", userLimiter, TokenBucketLimiter::size)
+                .description("Users with a live rate-limit bucket")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/items") || path.startsWith("/users"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = isWrite(request) ? userId(request) : null;
+        if (userId != null) {
+            long wait = userLimiter.tryAcquire(userId);
+            if (wait > 0) {
+                rateRejections.increment();
+                reject(request, response, HttpStatus.TOO_MANY_REQUESTS, wait,
+                        "Too many requests from user " + userId);
+                return;
+            }
+        }
+        if (!permits.tryAcquire()) {
+            concurrencyRejections.increment();
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "Server is busy");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    /** Malformed ids are left to the controller, which answers them with 400. */
+    private static Long userId(HttpServletRequest request) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Same RFC 7807 body as {@code ErrorHandler}, serialized by the application's mapper. */
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                               long waitNanos, String message) throws IOException {
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, message);
+        problem.setInstance(URI.create(request.getRequestURI()));
+        problem.setProperty("error", message);
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(problem));
+    }
+}
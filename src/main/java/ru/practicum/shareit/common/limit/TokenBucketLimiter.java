@@ -0,0 +1,79 @@
+package ru.practicum.shareit.common.limit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token bucket in its GCRA form: a bucket is one {@code long}, the theoretical arrival
+ * time (TAT) of the next request, updated with a CAS, so taking a token never locks.
+ * A request at {@code now} is admitted while {@code TAT - now <= (burst - 1) * interval} and
+ * pushes TAT one interval further.
+ *
+ * <p>A bucket whose TAT is in the past is full and behaves exactly like a missing one, so
+ * callers sweep the map once per {@link #SWEEP_INTERVAL} and drop such entries; memory follows
+ * the set of recently active keys, not every key ever seen.
+ */
+public class TokenBucketLimiter {
+    static final long SWEEP_INTERVAL = 1_000_000_000L;
+
+    private final Map<Long, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long interval;
+    private final long tolerance;
+    private final LongSupplier clock;
+    private final AtomicLong nextSweep;
+
+    /**
+     * @param permitsPerSecond sustained rate per key
+     * @param burst            tokens a key that was idle long enough may spend at once
+     * @param clock            nanosecond clock, {@link System#nanoTime} outside tests
+     */
+    public TokenBucketLimiter(double permitsPerSecond, int burst, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.interval = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.tolerance = interval * (burst - 1);
+        this.clock = clock;
+        this.nextSweep = new AtomicLong(clock.getAsLong() + SWEEP_INTERVAL);
+    }
+
+    /** @return 0 if a token was taken, otherwise nanoseconds until the key gets its next one */
+    public long tryAcquire(long key) {
+        long now = clock.getAsLong();
+        sweepIfDue(now);
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = tat.get();
+            long start = Math.max(current, now);
+            if (start - now > tolerance) {
+                return start - tolerance - now;
+            }
+            if (tat.compareAndSet(current, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Keys that currently hold a bucket, idle ones included until the next sweep. */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * One caller per interval wins the CAS and sweeps. The map's iterator is weakly consistent,
+     * so the sweep never blocks other keys. A request racing it may spend its token on a bucket
+     * that was just dropped; that only hands a full bucket one extra token.
+     */
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL)) {
+            return;
+        }
+        buckets.entrySet().removeIf(e -> e.getValue().get() - now <= 0);
+    }
+}
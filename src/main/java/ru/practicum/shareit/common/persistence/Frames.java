@@ -0,0 +1,115 @@
+package ru.practicum.shareit.common.persistence;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Length- and checksum-prefixed frames shared by log segments and snapshots:
+ * {@code [int length][int crc32c][payload]}. A torn or corrupt frame ends the readable part of a file.
+ */
+final class Frames {
+    static final int HEADER = 8;
+    static final int MAX_PAYLOAD = 64 * 1024 * 1024;
+
+    private Frames() {
+    }
+
+    static ByteBuffer header(ByteBuffer payload) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(payload.remaining());
+        header.putInt(crc(payload));
+        return header.flip();
+    }
+
+    /**
+     * Hands every intact frame payload to the visitor, in file order.
+     *
+     * @return {@code true} if the file ended exactly on a frame boundary
+     */
+    static boolean read(Path file, Consumer<ByteBuffer> visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                // файл может быть больше 2 ГБ, поэтому отображаем его окнами; кадр на границе окна
+                // дочитывается в следующем
+                long window = Math.min(size - position, Integer.MAX_VALUE);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+                int consumed = readFrames(buffer, visitor);
+                if (position + window == size) {
+                    return consumed == window;
+                }
+                if (consumed == 0) {
+                    return false;
+                }
+                position += consumed;
+            }
+            return true;
+        }
+    }
+
+    /** Buffers frames and writes them to the channel in large chunks; used for snapshots. */
+    static final class Writer implements Flushable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        Writer(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        void write(ByteBuffer payload) throws IOException {
+            if (buffer.remaining() < HEADER + payload.remaining()) {
+                flush();
+            }
+            if (buffer.remaining() < HEADER + payload.remaining()) {
+                ByteBuffer[] frame = {header(payload), payload.duplicate()};
+                while (frame[1].hasRemaining()) {
+                    channel.write(frame);
+                }
+                return;
+            }
+            buffer.put(header(payload)).put(payload.duplicate());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static int readFrames(ByteBuffer buffer, Consumer<ByteBuffer> visitor) {
+        while (buffer.remaining() >= HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            if (length < 0 || length > MAX_PAYLOAD || length > buffer.remaining()) {
+                return start;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            if (crc(payload) != crc) {
+                return start;
+            }
+            visitor.accept(payload);
+            buffer.position(buffer.position() + length);
+        }
+        return buffer.position();
+    }
+
+    private static int crc(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+}
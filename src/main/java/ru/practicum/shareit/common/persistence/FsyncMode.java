@@ -0,0 +1,9 @@
+package ru.practicum.shareit.common.persistence;
+
+/** When appended log records are forced to disk. */
+public enum FsyncMode {
+    /** every append is forced on its own before the write returns */
+    PER_OP,
+    /** writers waiting at the same time share one force (group commit); still durable on return */
+    GROUP
+}
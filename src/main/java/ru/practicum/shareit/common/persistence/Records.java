@@ -0,0 +1,151 @@
+package ru.practicum.shareit.common.persistence;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Binary record layout shared by the log and snapshots. Records carry full after-images, so
+ * replaying a record that is already reflected in a snapshot is harmless.
+ */
+final class Records {
+    static final byte USER_PUT = 1;
+    static final byte USER_DELETE = 2;
+    static final byte ITEM_PUT = 3;
+    /** snapshot only: id counters at the moment the snapshot started */
+    static final byte SEQ = 4;
+    /** snapshot only: marks a completely written snapshot */
+    static final byte END = 5;
+    /** log only: every item of the owner is gone, including items logged before this record */
+    static final byte ITEM_OWNER_DELETE = 6;
+
+    private static final byte NULL = -1;
+
+    private Records() {
+    }
+
+    static ByteBuffer users(Collection<User> users) {
+        return encode(USER_PUT, users.size(), out -> {
+            for (User user : users) {
+                out.writeLong(user.getId());
+                writeString(out, user.getName());
+                writeString(out, user.getEmail());
+                out.writeLong(user.getVersion());
+                writeInstant(out, user.getUpdatedAt());
+            }
+        });
+    }
+
+    static ByteBuffer userDelete(long id) {
+        return encode(USER_DELETE, 1, out -> out.writeLong(id));
+    }
+
+    static ByteBuffer itemOwnerDelete(long ownerId) {
+        return encode(ITEM_OWNER_DELETE, 1, out -> out.writeLong(ownerId));
+    }
+
+    static ByteBuffer items(Collection<Item> items) {
+        return encode(ITEM_PUT, items.size(), out -> {
+            for (Item item : items) {
+                out.writeLong(item.getId());
+                writeString(out, item.getName());
+                writeString(out, item.getDescription());
+                out.writeByte(item.getAvailable() == null ? NULL : item.getAvailable() ? 1 : 0);
+                out.writeLong(item.getOwnerId());
+                out.writeBoolean(item.getRequestId() != null);
+                out.writeLong(item.getRequestId() == null ? 0 : item.getRequestId());
+                out.writeLong(item.getVersion());
+                writeInstant(out, item.getUpdatedAt());
+            }
+        });
+    }
+
+    static ByteBuffer seq(long userSeq, long itemSeq) {
+        return encode(SEQ, 1, out -> {
+            out.writeLong(userSeq);
+            out.writeLong(itemSeq);
+        });
+    }
+
+    static ByteBuffer end() {
+        return encode(END, 0, out -> {
+        });
+    }
+
+    static User readUser(ByteBuffer in) {
+        User user = new User(in.getLong(), readString(in), readString(in));
+        user.setVersion(in.getLong());
+        user.setUpdatedAt(readInstant(in));
+        return user;
+    }
+
+    static Item readItem(ByteBuffer in) {
+        long id = in.getLong();
+        String name = readString(in);
+        String description = readString(in);
+        byte available = in.get();
+        long ownerId = in.getLong();
+        boolean hasRequest = in.get() != 0;
+        long requestId = in.getLong();
+        Item item = new Item(id, name, description, available == NULL ? null : available == 1, ownerId,
+                hasRequest ? requestId : null);
+        item.setVersion(in.getLong());
+        item.setUpdatedAt(readInstant(in));
+        return item;
+    }
+
+    private static ByteBuffer encode(byte type, int count, Body body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + count * 96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeInt(count);
+            body.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** epoch millis, which is all Last-Modified needs; {@code Long.MIN_VALUE} for null */
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value == null ? Long.MIN_VALUE : value.toEpochMilli());
+    }
+
+    private static Instant readInstant(ByteBuffer in) {
+        long millis = in.getLong();
+        return millis == Long.MIN_VALUE ? null : Instant.ofEpochMilli(millis);
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.common.persistence;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/** Stores rebuilt from a snapshot plus the log tail that follows it. */
+final class RecoveredState {
+    final Map<Long, User> users = new HashMap<>();
+    final Map<Long, Item> items = new HashMap<>();
+    /** owners whose items were deleted; applied once in {@link #dropDeletedOwners} instead of per record */
+    final Set<Long> deletedOwners = new HashSet<>();
+    long userSeq = 1;
+    long itemSeq = 1;
+    boolean complete;
+    long nextSegment = 1;
+
+    void apply(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        byte type = in.get();
+        int count = in.getInt();
+        switch (type) {
+            case Records.USER_PUT -> {
+                for (int i = 0; i < count; i++) {
+                    User user = Records.readUser(in);
+                    users.put(user.getId(), user);
+                    userSeq = Math.max(userSeq, user.getId() + 1);
+                }
+            }
+            case Records.USER_DELETE -> {
+                for (int i = 0; i < count; i++) {
+                    long id = in.getLong();
+                    users.remove(id);
+                    userSeq = Math.max(userSeq, id + 1);
+                }
+            }
+            case Records.ITEM_PUT -> {
+                for (int i = 0; i < count; i++) {
+                    Item item = Records.readItem(in);
+                    items.put(item.getId(), item);
+                    itemSeq = Math.max(itemSeq, item.getId() + 1);
+                }
+            }
+            case Records.ITEM_OWNER_DELETE -> {
+                for (int i = 0; i < count; i++) {
+                    deletedOwners.add(in.getLong());
+                }
+            }
+            case Records.SEQ -> {
+                userSeq = Math.max(userSeq, in.getLong());
+                itemSeq = Math.max(itemSeq, in.getLong());
+            }
+            case Records.END -> complete = true;
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    /** Owner ids are never reused, so an item of a deleted owner is dead whenever it was logged. */
+    void dropDeletedOwners() {
+        if (!deletedOwners.isEmpty()) {
+            items.values().removeIf(item -> deletedOwners.contains(item.getOwnerId()));
+            deletedOwners.clear();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package ru.practicum.shareit.common.persistence;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Durability for the in-memory user and item stores: a write-ahead log of after-images plus
+ * periodic snapshots. On startup the newest complete snapshot is loaded and the log segments
+ * written after it are replayed; the stores pick the result up through {@code setJournal}.
+ *
+ * <p>A snapshot first rotates the log to segment {@code S}, then dumps the stores into
+ * {@code snapshot-S.bin}. Stores log a change and apply it between {@link #beginChange} and
+ * {@link #endChange}, and the rotation waits until no change is half done, so everything logged
+ * before segment {@code S} is visible to the dump. Changes racing with the dump are in segment
+ * {@code S} and are replayed on top, so the dump does not have to be a consistent cut.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${shareit.persistence.enabled:false} and '${shareit.storage.type:memory}' == 'memory'")
+public class StorageJournal implements SmartInitializingSingleton {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_BATCH = 1024;
+    private static final int SNAPSHOT_BUFFER = 1 << 20;
+
+    private final Path dir;
+    private final Duration snapshotInterval;
+    private final ObjectProvider<UserStorage> userStorageProvider;
+    private final ObjectProvider<ItemStorage> itemStorageProvider;
+    private final WriteAheadLog wal;
+    /** next id for each store: max(logged id) + 1, never lower than the recovered counters */
+    private final AtomicLong userSeq;
+    private final AtomicLong itemSeq;
+    /** shared by changes between their log append and apply, exclusive for the log rotation */
+    private final ReadWriteLock rotation = new ReentrantReadWriteLock();
+    private Map<Long, User> recoveredUsers;
+    private Map<Long, Item> recoveredItems;
+    private UserStorage userStorage;
+    private ItemStorage itemStorage;
+    private ScheduledExecutorService scheduler;
+
+    public StorageJournal(@Value("${shareit.persistence.dir}") Path dir,
+                          @Value("${shareit.persistence.fsync}") FsyncMode fsync,
+                          @Value("${shareit.persistence.snapshot-interval}") Duration snapshotInterval,
+                          ObjectProvider<UserStorage> userStorageProvider,
+                          ObjectProvider<ItemStorage> itemStorageProvider) throws IOException {
+        this.dir = dir;
+        this.snapshotInterval = snapshotInterval;
+        this.userStorageProvider = userStorageProvider;
+        this.itemStorageProvider = itemStorageProvider;
+        Files.createDirectories(dir);
+        long start = System.nanoTime();
+        RecoveredState state = recover(dir);
+        log.info("Recovered {} users and {} items from {} in {} ms", state.users.size(), state.items.size(),
+                dir.toAbsolutePath(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        this.recoveredUsers = state.users;
+        this.recoveredItems = state.items;
+        this.userSeq = new AtomicLong(state.userSeq);
+        this.itemSeq = new AtomicLong(state.itemSeq);
+        this.wal = new WriteAheadLog(dir, state.nextSegment, fsync);
+    }
+
+    /** Hands the recovered users over once; the journal keeps no reference afterwards. */
+    public synchronized Collection<User> takeRecoveredUsers() {
+        Collection<User> users = recoveredUsers == null ? List.of() : recoveredUsers.values();
+        recoveredUsers = null;
+        return users;
+    }
+
+    public synchronized Collection<Item> takeRecoveredItems() {
+        Collection<Item> items = recoveredItems == null ? List.of() : recoveredItems.values();
+        recoveredItems = null;
+        return items;
+    }
+
+    public long nextUserId() {
+        return userSeq.get();
+    }
+
+    public long nextItemId() {
+        return itemSeq.get();
+    }
+
+    /**
+     * Logs the after-images of new or changed users. Called inside the store's critical section so
+     * that log order matches apply order per user; the fsync happens later in {@link #sync}.
+     *
+     * @return sequence number for {@link #sync}
+     */
+    public long putUsers(Collection<User> users) {
+        for (User user : users) {
+            userSeq.accumulateAndGet(user.getId() + 1, Math::max);
+        }
+        return wal.append(Records.users(users));
+    }
+
+    public long deleteUser(long id) {
+        userSeq.accumulateAndGet(id + 1, Math::max);
+        return wal.append(Records.userDelete(id));
+    }
+
+    public long putItems(Collection<Item> items) {
+        for (Item item : items) {
+            itemSeq.accumulateAndGet(item.getId() + 1, Math::max);
+        }
+        return wal.append(Records.items(items));
+    }
+
+    /** Logs the deletion of every item of the owner, see {@code ItemStorage#hideOwner}. */
+    public long deleteItemsOf(long ownerId) {
+        return wal.append(Records.itemOwnerDelete(ownerId));
+    }
+
+    /**
+     * Opens a change: its log append and its apply to the store happen before the matching
+     * {@link #endChange}, which a store calls in {@code finally}. Changes do not block each other.
+     */
+    public void beginChange() {
+        rotation.readLock().lock();
+    }
+
+    public void endChange() {
+        rotation.readLock().unlock();
+    }
+
+    /** Blocks until the record is durable; called outside the store's locks. */
+    public void sync(long lsn) {
+        wal.sync(lsn);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        userStorage = userStorageProvider.getObject();
+        itemStorage = itemStorageProvider.getObject();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shareit-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = snapshotInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Writes a snapshot and drops the log segments and snapshots it supersedes. */
+    public synchronized void snapshot() throws IOException {
+        long start = System.nanoTime();
+        long segment;
+        rotation.writeLock().lock();
+        try {
+            segment = wal.rotate();
+        } finally {
+            rotation.writeLock().unlock();
+        }
+        writeSnapshot(dir, segment, userSeq.get(), itemSeq.get(), userStorage.findAll(), itemStorage::forEach);
+        for (long old : WriteAheadLog.numbered(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (old < segment) {
+                Files.deleteIfExists(snapshotPath(dir, old));
+            }
+        }
+        for (long old : WriteAheadLog.segments(dir)) {
+            if (old < segment) {
+                Files.deleteIfExists(WriteAheadLog.segmentPath(dir, old));
+            }
+        }
+        log.info("Snapshot {} written in {} ms", segment, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            snapshotQuietly();
+        }
+        wal.close();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            // лог остаётся полным, следующая попытка просто перепишет снимок
+            log.error("Snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+
+    static RecoveredState recover(Path dir) throws IOException {
+        RecoveredState state = new RecoveredState();
+        long base = 0;
+        List<Long> snapshots = WriteAheadLog.numbered(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            RecoveredState candidate = new RecoveredState();
+            Path file = snapshotPath(dir, snapshots.get(i));
+            if (Frames.read(file, candidate::apply) && candidate.complete) {
+                state = candidate;
+                base = snapshots.get(i);
+                break;
+            }
+            log.warn("Skipping incomplete snapshot {}", file);
+        }
+        long last = base;
+        for (long segment : WriteAheadLog.segments(dir)) {
+            if (segment < base) {
+                continue;
+            }
+            Path file = WriteAheadLog.segmentPath(dir, segment);
+            if (!Frames.read(file, state::apply)) {
+                log.warn("Log segment {} ends with a torn record; replay of it stopped there", file);
+            }
+            last = Math.max(last, segment);
+        }
+        state.dropDeletedOwners();
+        // после рестарта пишем в новый сегмент, чтобы не дописывать за возможным обрывом
+        state.nextSegment = last + 1;
+        return state;
+    }
+
+    static void writeSnapshot(Path dir, long segment, long userSeq, long itemSeq,
+                              Collection<User> users, Consumer<Consumer<Item>> items) throws IOException {
+        Path tmp = dir.resolve(SNAPSHOT_PREFIX + segment + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Frames.Writer writer = new Frames.Writer(channel, SNAPSHOT_BUFFER);
+            writer.write(Records.seq(userSeq, itemSeq));
+            List<User> userBatch = new ArrayList<>(SNAPSHOT_BATCH);
+            for (User user : users) {
+                userBatch.add(user);
+                if (userBatch.size() == SNAPSHOT_BATCH) {
+                    writer.write(Records.users(userBatch));
+                    userBatch.clear();
+                }
+            }
+            if (!userBatch.isEmpty()) {
+                writer.write(Records.users(userBatch));
+            }
+            List<Item> itemBatch = new ArrayList<>(SNAPSHOT_BATCH);
+            items.accept(item -> {
+                itemBatch.add(item);
+                if (itemBatch.size() == SNAPSHOT_BATCH) {
+                    writeItems(writer, itemBatch);
+                }
+            });
+            if (!itemBatch.isEmpty()) {
+                writeItems(writer, itemBatch);
+            }
+            writer.write(Records.end());
+            writer.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, snapshotPath(dir, segment), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeItems(Frames.Writer writer, List<Item> batch) {
+        try {
+            writer.write(Records.items(batch));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batch.clear();
+    }
+
+    private static Path snapshotPath(Path dir, long segment) {
+        return dir.resolve(SNAPSHOT_PREFIX + segment + SNAPSHOT_SUFFIX);
+    }
+}
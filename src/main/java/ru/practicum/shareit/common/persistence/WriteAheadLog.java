@@ -0,0 +1,150 @@
+package ru.practicum.shareit.common.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only log split into numbered segments ({@code wal-<n>.log}).
+ *
+ * <p>{@link #append} writes a frame to the page cache and returns its sequence number;
+ * {@link #sync} makes everything up to that number durable. In {@link FsyncMode#GROUP} mode the
+ * first waiter forces the channel for every frame written so far, and writers that queued behind
+ * it find their frame already durable: one fsync per burst instead of one per write.
+ */
+public class WriteAheadLog implements Closeable {
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final FsyncMode mode;
+    /** guards the channel and {@link #appended}; never held across a force in GROUP mode */
+    private final Object appendLock = new Object();
+    /** serializes forces and rotation; always taken before {@link #appendLock} */
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    private long segment;
+    private long appended;
+    private volatile long durable;
+
+    public WriteAheadLog(Path dir, long segment, FsyncMode mode) throws IOException {
+        this.dir = dir;
+        this.mode = mode;
+        this.segment = segment;
+        this.channel = open(dir, segment);
+    }
+
+    /** @return sequence number to pass to {@link #sync} */
+    public long append(ByteBuffer payload) {
+        ByteBuffer[] frame = {Frames.header(payload), payload.duplicate()};
+        synchronized (appendLock) {
+            try {
+                while (frame[1].hasRemaining()) {
+                    channel.write(frame);
+                }
+                long lsn = ++appended;
+                if (mode == FsyncMode.PER_OP) {
+                    channel.force(false);
+                    durable = lsn;
+                }
+                return lsn;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot append to " + segmentPath(dir, segment), e);
+            }
+        }
+    }
+
+    /** Blocks until the frame with the given sequence number is on disk. */
+    public void sync(long lsn) {
+        if (durable >= lsn) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durable >= lsn) {
+                return;
+            }
+            FileChannel target;
+            long upTo;
+            synchronized (appendLock) {
+                target = channel;
+                upTo = appended;
+            }
+            try {
+                target.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot force " + segmentPath(dir, segment), e);
+            }
+            durable = upTo;
+        }
+    }
+
+    /**
+     * Forces and closes the current segment and continues in a new one.
+     *
+     * @return number of the new segment; every frame appended afterwards lands in it or later
+     */
+    public long rotate() throws IOException {
+        synchronized (syncLock) {
+            synchronized (appendLock) {
+                channel.force(false);
+                channel.close();
+                durable = appended;
+                segment++;
+                channel = open(dir, segment);
+                return segment;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (appendLock) {
+                if (channel.isOpen()) {
+                    channel.force(false);
+                    channel.close();
+                }
+                durable = appended;
+            }
+        }
+    }
+
+    /** Existing segment numbers in ascending order. */
+    public static List<Long> segments(Path dir) throws IOException {
+        return numbered(dir, PREFIX, SUFFIX);
+    }
+
+    public static Path segmentPath(Path dir, long segment) {
+        return dir.resolve(PREFIX + segment + SUFFIX);
+    }
+
+    static List<Long> numbered(Path dir, String prefix, String suffix) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException ignored) {
+                    // чужой файл с похожим именем
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    private static FileChannel open(Path dir, long segment) throws IOException {
+        return FileChannel.open(segmentPath(dir, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
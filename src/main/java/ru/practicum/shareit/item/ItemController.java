@@ -1,11 +1,27 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.common.EntityTag;
+import ru.practicum.shareit.common.JsonArrayResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemJsonWriter;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemFilter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /** REST controller for Item CRUD & search. */
@@ -15,9 +31,14 @@ public class ItemController {
     private static final String USER_HEADER = "X-Sharer-User-Id";
 
     private final ItemService service;
+    private final ObjectMapper objectMapper;
+    private final int unfilteredSearchSize;
 
-    public ItemController(ItemService service) {
+    public ItemController(ItemService service, ObjectMapper objectMapper,
+                          @Value("${shareit.search.unfiltered-size:100}") int unfilteredSearchSize) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.unfilteredSearchSize = unfilteredSearchSize;
     }
 
     @PostMapping
@@ -26,27 +47,121 @@ public class ItemController {
         return service.create(userId, dto);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<ItemDto> createBatch(@RequestHeader(USER_HEADER) Long userId, @RequestBody List<ItemDto> dtos) {
+        return service.createBatch(userId, dtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(USER_HEADER) Long userId,
                           @PathVariable Long itemId,
+                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                           @RequestBody ItemDto patch) {
-        return service.update(userId, itemId, patch);
+        return service.update(userId, itemId, patch, EntityTag.expectedVersion(ifMatch, itemId));
     }
 
+    /**
+     * Conditional GET: the tag is read before the body, so a racing update can only leave the
+     * client with a tag older than its body (one extra download), never with a stale 304.
+     */
     @GetMapping("/{itemId}")
     public ItemDto get(@RequestHeader(value = USER_HEADER, required = false) Long userId,
-                       @PathVariable Long itemId) {
+                       @PathVariable Long itemId,
+                       WebRequest request) {
+        EntityTag tag = service.tag(userId, itemId);
+        if (request.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
         return service.get(userId, itemId);
     }
 
+    /** List endpoints write items straight from the store with {@link ItemJsonWriter}, no DTO list. */
     @GetMapping
-    public List<ItemDto> ownerItems(@RequestHeader(USER_HEADER) Long userId) {
-        return service.getOwnerItems(userId);
+    public void ownerItems(@RequestHeader(USER_HEADER) Long userId,
+                           @RequestParam(defaultValue = "0") int from,
+                           @RequestParam(required = false) Integer size,
+                           WebRequest request,
+                           HttpServletResponse response) throws IOException {
+        if (request.checkNotModified(service.ownerItemsTag(userId, from, size).etag())) {
+            return;
+        }
+        JsonArrayResponse.write(objectMapper, response, array ->
+                service.forEachOwnerItem(userId, from, size, (item, lastBooking, nextBooking) ->
+                        array.element(gen -> ItemJsonWriter.write(gen, item, lastBooking, nextBooking))));
     }
 
+    /**
+     * Text, availability ({@code true} by default, {@code any} for both), owner and a free range
+     * combine with AND; without {@code text} the other filters alone select the items. Without
+     * text or owner the catalog is listed, so an absent {@code size} means
+     * {@code shareit.search.unfiltered-size} rather than everything.
+     */
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam(name = "text") String text) {
-        return service.search(text);
+    public void search(@RequestParam(required = false) String text,
+                       @RequestParam(defaultValue = "true") String available,
+                       @RequestParam(required = false) Long ownerId,
+                       @RequestParam(required = false)
+                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeFrom,
+                       @RequestParam(required = false)
+                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeTo,
+                       @RequestParam(defaultValue = "id") String sort,
+                       @RequestParam(defaultValue = "0") int from,
+                       @RequestParam(required = false) Integer size,
+                       HttpServletResponse response) throws IOException {
+        boolean ranked = switch (sort) {
+            case "id" -> false;
+            case "relevance" -> true;
+            default -> throw new IllegalArgumentException("Unknown search sort: " + sort);
+        };
+        Boolean availability = switch (available) {
+            case "true" -> true;
+            case "false" -> false;
+            case "any" -> null;
+            default -> throw new IllegalArgumentException("Unknown availability: " + available);
+        };
+        ItemFilter filter = new ItemFilter(text, availability, ownerId);
+        Integer pageSize = size != null || text != null || ownerId != null
+                ? size : Integer.valueOf(unfilteredSearchSize);
+        JsonArrayResponse.write(objectMapper, response, array ->
+                service.forEachFound(filter, freeFrom, freeTo, ranked, from, pageSize, item ->
+                        array.element(gen -> ItemJsonWriter.write(gen, item, null, null))));
+    }
+
+    /**
+     * Streams the whole catalog as NDJSON (default) or as one JSON array. Items are serialized
+     * straight into the response buffer, so a slow client blocks the writer instead of piling
+     * DTOs up on the heap.
+     */
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean array = switch (format) {
+            case "ndjson" -> false;
+            case "json" -> true;
+            default -> throw new IllegalArgumentException("Unknown export format: " + format);
+        };
+        response.setContentType(array ? MediaType.APPLICATION_JSON_VALUE : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            gen.setRootValueSeparator(null);
+            if (array) {
+                gen.writeStartArray();
+            }
+            service.exportAll(dto -> {
+                try {
+                    gen.writeObject(dto);
+                    if (!array) {
+                        gen.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (array) {
+                gen.writeEndArray();
+            }
+        }
     }
 }
 
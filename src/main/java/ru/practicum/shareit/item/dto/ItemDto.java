@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 /** DTO for external representation of Item. */
 public class ItemDto {
@@ -16,14 +17,26 @@ public class ItemDto {
     @NotNull
     private Boolean available;
 
+    private Long requestId;
+
+    /** filled only when the owner looks at the item */
+    private BookingShortDto lastBooking;
+
+    private BookingShortDto nextBooking;
+
     public ItemDto() {
     }
 
     public ItemDto(Long id, String name, String description, Boolean available) {
+        this(id, name, description, available, null);
+    }
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.available = available;
+        this.requestId = requestId;
     }
 
     public Long getId() {
@@ -57,6 +70,30 @@ public class ItemDto {
     public void setAvailable(Boolean available) {
         this.available = available;
     }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public BookingShortDto getLastBooking() {
+        return lastBooking;
+    }
+
+    public void setLastBooking(BookingShortDto lastBooking) {
+        this.lastBooking = lastBooking;
+    }
+
+    public BookingShortDto getNextBooking() {
+        return nextBooking;
+    }
+
+    public void setNextBooking(BookingShortDto nextBooking) {
+        this.nextBooking = nextBooking;
+    }
 }
 
 
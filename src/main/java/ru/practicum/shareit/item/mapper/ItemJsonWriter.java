@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an item in exactly the shape Jackson gives {@link ItemDto}, straight from the entity:
+ * no DTO, no reflective accessors, field names encoded once. List responses go through here,
+ * so a page of thousands of items does not first become as many throwaway DTOs.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ItemJsonWriter {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString AVAILABLE = new SerializedString("available");
+    private static final SerializableString REQUEST_ID = new SerializedString("requestId");
+    private static final SerializableString LAST_BOOKING = new SerializedString("lastBooking");
+    private static final SerializableString NEXT_BOOKING = new SerializedString("nextBooking");
+    private static final SerializableString BOOKER_ID = new SerializedString("bookerId");
+    private static final SerializableString START = new SerializedString("start");
+    private static final SerializableString END = new SerializedString("end");
+
+    /** Bookings are the owner's view; {@code null} writes them as {@code null} like an unset DTO field. */
+    public static void write(JsonGenerator gen, Item item, Booking lastBooking, Booking nextBooking)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        writeNumber(gen, item.getId());
+        gen.writeFieldName(NAME);
+        gen.writeString(item.getName());
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(item.getDescription());
+        gen.writeFieldName(AVAILABLE);
+        if (item.getAvailable() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeBoolean(item.getAvailable());
+        }
+        gen.writeFieldName(REQUEST_ID);
+        writeNumber(gen, item.getRequestId());
+        gen.writeFieldName(LAST_BOOKING);
+        writeBooking(gen, lastBooking);
+        gen.writeFieldName(NEXT_BOOKING);
+        writeBooking(gen, nextBooking);
+        gen.writeEndObject();
+    }
+
+    /** Same fields as {@code BookingShortDto}. */
+    private static void writeBooking(JsonGenerator gen, Booking booking) throws IOException {
+        if (booking == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        writeNumber(gen, booking.getId());
+        gen.writeFieldName(BOOKER_ID);
+        writeNumber(gen, booking.getBookerId());
+        gen.writeFieldName(START);
+        writeDateTime(gen, booking.getStart());
+        gen.writeFieldName(END);
+        writeDateTime(gen, booking.getEnd());
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    /** ISO-8601 like Jackson's {@code LocalDateTimeSerializer} with timestamps disabled. */
+    private static void writeDateTime(JsonGenerator gen, LocalDateTime value) throws IOException {
+        gen.writeString(value == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+    }
+}
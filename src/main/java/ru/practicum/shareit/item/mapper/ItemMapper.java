@@ -12,14 +12,16 @@ public final class ItemMapper {
         if (model == null) {
             return null;
         }
-        return new ItemDto(model.getId(), model.getName(), model.getDescription(), model.getAvailable());
+        return new ItemDto(model.getId(), model.getName(), model.getDescription(), model.getAvailable(),
+                model.getRequestId());
     }
 
     public static Item fromDto(ItemDto dto, Long ownerId) {
         if (dto == null) {
             return null;
         }
-        return new Item(dto.getId(), dto.getName(), dto.getDescription(), dto.getAvailable(), ownerId);
+        return new Item(dto.getId(), dto.getName(), dto.getDescription(), dto.getAvailable(), ownerId,
+                dto.getRequestId());
     }
 }
 
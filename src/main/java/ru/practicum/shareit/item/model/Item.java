@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 
+import java.time.Instant;
 import java.util.Objects;
 
 /** Basic Item model for in-memory storage. */
@@ -23,15 +24,28 @@ public class Item {
     /** owner user id */
     Long ownerId;
 
+    /** id of the item request this item was posted in response to, if any */
+    Long requestId;
+
+    /** 1 when stored, bumped by every stored change; the basis of the item's ETag */
+    long version;
+
+    Instant updatedAt;
+
     public Item() {
     }
 
     public Item(Long id, String name, String description, Boolean available, Long ownerId) {
+        this(id, name, description, available, ownerId, null);
+    }
+
+    public Item(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.available = available;
         this.ownerId = ownerId;
+        this.requestId = requestId;
     }
 
     public Long getId() {
@@ -74,6 +88,30 @@ public class Item {
         this.ownerId = ownerId;
     }
 
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -1,17 +1,65 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.common.EntityTag;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemFilter;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto create(Long ownerId, ItemDto dto);
 
-    ItemDto update(Long ownerId, Long itemId, ItemDto patch);
+    /** Creates the whole batch or nothing; rejected elements are reported by index. */
+    List<ItemDto> createBatch(Long ownerId, List<ItemDto> dtos);
+
+    /**
+     * @param expectedVersion version from the client's If-Match, or {@code null} to patch unconditionally
+     * @throws ru.practicum.shareit.common.exceptions.PreconditionFailedException if the item moved on
+     */
+    ItemDto update(Long ownerId, Long itemId, ItemDto patch, Long expectedVersion);
 
     ItemDto get(Long requesterId, Long itemId);
 
-    List<ItemDto> getOwnerItems(Long ownerId);
+    /** Validators of {@link #get} for the same requester, computed without building the DTO. */
+    EntityTag tag(Long requesterId, Long itemId);
+
+    /**
+     * ETag of an {@link #getOwnerItems} page, derived from the owner's item and booking versions
+     * rather than the items. A booking that turns from next into last only because its start has
+     * passed does not change it.
+     */
+    EntityTag ownerItemsTag(Long ownerId, int from, Integer size);
+
+    /** Owner items ordered by id; {@code size == null} returns everything starting at {@code from}. */
+    List<ItemDto> getOwnerItems(Long ownerId, int from, Integer size);
+
+    /** Same page as {@link #getOwnerItems}, handed to the sink item by item instead of as DTOs. */
+    void forEachOwnerItem(Long ownerId, int from, Integer size, ItemSink sink);
+
+    /**
+     * Items matching the filter and, if {@code freeFrom}/{@code freeTo} are given, with no waiting
+     * or approved booking in that range; {@code size == null} meaning all from {@code from}.
+     * Unranked: the whole text as one substring, ordered by id. Ranked: the text is required and
+     * every word must match, ordered by relevance (see {@link SearchRanking}).
+     */
+    List<ItemDto> search(ItemFilter filter, LocalDateTime freeFrom, LocalDateTime freeTo,
+                         boolean ranked, int from, Integer size);
+
+    /** Same result as {@link #search}, in the same order, handed to the sink instead of as DTOs. */
+    void forEachFound(ItemFilter filter, LocalDateTime freeFrom, LocalDateTime freeTo,
+                      boolean ranked, int from, Integer size, Consumer<Item> sink);
+
+    /** Hands every item to the sink one at a time, in id order; nothing is collected in between. */
+    void exportAll(Consumer<ItemDto> sink);
 
-    List<ItemDto> search(String text);
+    /** Receives list results; the bookings are the owner's view and may be {@code null}. */
+    @FunctionalInterface
+    interface ItemSink {
+        void accept(Item item, Booking lastBooking, Booking nextBooking);
+    }
 }
 
@@ -1,63 +1,273 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.common.BatchValidator;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.common.EntityTag;
+import ru.practicum.shareit.common.ShareItMetrics;
+import ru.practicum.shareit.common.events.ChangeEvent;
+import ru.practicum.shareit.common.events.ChangeLog;
+import ru.practicum.shareit.common.exceptions.BatchException;
 import ru.practicum.shareit.common.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.item.storage.ItemFilter;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.storage.ItemRequestStorage;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 public class ItemServiceImpl implements ItemService {
-    private final InMemoryItemStorage storage = new InMemoryItemStorage();
+    private final ItemStorage storage;
+    private final BookingStorage bookingStorage;
     private final UserService userService;
+    private final ItemRequestStorage requestStorage;
+    private final BatchValidator batchValidator;
+    /** id -> Item; the view depends on who asks, so entities are cached rather than DTOs */
+    private final Cache itemCache;
+    private final ChangeLog changeLog;
+    private final DistributionSummary searchResults;
 
-    public ItemServiceImpl(UserService userService) {
+    public ItemServiceImpl(ItemStorage storage, BookingStorage bookingStorage, UserService userService,
+                           ItemRequestStorage requestStorage, BatchValidator batchValidator,
+                           CacheManager cacheManager, ChangeLog changeLog, MeterRegistry registry) {
+        this.storage = storage;
+        this.bookingStorage = bookingStorage;
         this.userService = userService;
+        this.requestStorage = requestStorage;
+        this.batchValidator = batchValidator;
+        this.itemCache = cacheManager.getCache(CacheConfig.ITEMS);
+        this.changeLog = changeLog;
+        this.searchResults = ShareItMetrics.searchResults(registry);
     }
 
     @Override
     public ItemDto create(Long ownerId, ItemDto dto) {
         // 404 если владелец не существует
         userService.get(ownerId);
+        if (dto.getRequestId() != null && requestStorage.findById(dto.getRequestId()).isEmpty()) {
+            throw new NotFoundException("Request not found: " + dto.getRequestId());
+        }
         Item saved = storage.save(ItemMapper.fromDto(dto, ownerId));
+        changed(ChangeEvent.Type.CREATED, saved);
         return ItemMapper.toDto(saved);
     }
 
     @Override
-    public ItemDto update(Long ownerId, Long itemId, ItemDto patch) {
-        Item patched = storage.updatePartial(itemId, ItemMapper.fromDto(patch, ownerId), ownerId);
+    public List<ItemDto> createBatch(Long ownerId, List<ItemDto> dtos) {
+        Map<Integer, String> errors = batchValidator.validate(dtos);
+        // владелец и каждый упомянутый запрос проверяются один раз на весь пакет
+        userService.get(ownerId);
+        Map<Long, Boolean> knownRequests = new HashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            Long requestId = dtos.get(i) == null ? null : dtos.get(i).getRequestId();
+            if (requestId != null
+                    && !knownRequests.computeIfAbsent(requestId, id -> requestStorage.findById(id).isPresent())) {
+                errors.merge(i, "Request not found: " + requestId, (a, b) -> a + "; " + b);
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BatchException(HttpStatus.BAD_REQUEST, errors);
+        }
+        List<Item> items = new ArrayList<>(dtos.size());
+        for (ItemDto dto : dtos) {
+            items.add(ItemMapper.fromDto(dto, ownerId));
+        }
+        List<Item> saved = storage.saveAll(items);
+        for (Item item : saved) {
+            changed(ChangeEvent.Type.CREATED, item);
+        }
+        return saved.stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
+    public ItemDto update(Long ownerId, Long itemId, ItemDto patch, Long expectedVersion) {
+        Item patched = storage.updatePartial(itemId, ItemMapper.fromDto(patch, ownerId), ownerId, expectedVersion);
         if (patched == null) {
             // скрываем факт существования вещи, если она чужая или отсутствует
             throw new NotFoundException("Item not found: " + itemId);
         }
+        changed(ChangeEvent.Type.UPDATED, patched);
         return ItemMapper.toDto(patched);
     }
 
     @Override
     public ItemDto get(Long requesterId, Long itemId) {
-        return storage.findById(itemId)
-                .map(ItemMapper::toDto)
-                .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
+        Item item = cachedItem(itemId);
+        ItemDto dto = ItemMapper.toDto(item);
+        if (Objects.equals(item.getOwnerId(), requesterId)) {
+            attachBookings(dto, LocalDateTime.now());
+        }
+        return dto;
     }
 
+    /** The owner's view also shows bookings, so its tag names the current last and next booking. */
     @Override
-    public List<ItemDto> getOwnerItems(Long ownerId) {
-        return storage.findByOwner(ownerId).stream()
-                .map(ItemMapper::toDto)
-                .collect(Collectors.toList());
+    public EntityTag tag(Long requesterId, Long itemId) {
+        Item item = cachedItem(itemId);
+        if (!Objects.equals(item.getOwnerId(), requesterId)) {
+            return EntityTag.of(itemId, item.getVersion(), item.getUpdatedAt());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return EntityTag.of(itemId, item.getVersion(), item.getUpdatedAt(),
+                bookingId(bookingStorage.findLastApproved(itemId, now)),
+                bookingId(bookingStorage.findNextApproved(itemId, now)));
     }
 
     @Override
-    public List<ItemDto> search(String text) {
-        return storage.search(text).stream()
-                .map(ItemMapper::toDto)
-                .collect(Collectors.toList());
+    public EntityTag ownerItemsTag(Long ownerId, int from, Integer size) {
+        checkPage(from, size);
+        return EntityTag.of(ownerId, storage.ownerVersion(ownerId), null, from, size == null ? "all" : size,
+                bookingStorage.ownerVersion(ownerId));
     }
-}
 
+    @Override
+    public List<ItemDto> getOwnerItems(Long ownerId, int from, Integer size) {
+        List<ItemDto> page = new ArrayList<>();
+        forEachOwnerItem(ownerId, from, size, (item, lastBooking, nextBooking) -> {
+            ItemDto dto = ItemMapper.toDto(item);
+            dto.setLastBooking(BookingMapper.toShortDto(lastBooking));
+            dto.setNextBooking(BookingMapper.toShortDto(nextBooking));
+            page.add(dto);
+        });
+        return page;
+    }
+
+    @Override
+    public void forEachOwnerItem(Long ownerId, int from, Integer size, ItemSink sink) {
+        checkPage(from, size);
+        LocalDateTime now = LocalDateTime.now();
+        for (Item item : storage.findByOwner(ownerId, from, size == null ? Integer.MAX_VALUE : size)) {
+            sink.accept(item, bookingStorage.findLastApproved(item.getId(), now).orElse(null),
+                    bookingStorage.findNextApproved(item.getId(), now).orElse(null));
+        }
+    }
 
+    @Override
+    public List<ItemDto> search(ItemFilter filter, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                boolean ranked, int from, Integer size) {
+        List<ItemDto> found = new ArrayList<>();
+        forEachFound(filter, freeFrom, freeTo, ranked, from, size, item -> found.add(ItemMapper.toDto(item)));
+        return found;
+    }
+
+    /**
+     * The store narrows by text, availability and owner with its indexes; the free range needs the
+     * bookings, so it is checked last and only on what the store returns. Unranked pages stop the
+     * store as soon as they are full. The page is collected before the sink sees it, so a slow
+     * sink never holds up the store.
+     */
+    @Override
+    public void forEachFound(ItemFilter filter, LocalDateTime freeFrom, LocalDateTime freeTo,
+                             boolean ranked, int from, Integer size, Consumer<Item> sink) {
+        checkPage(from, size);
+        if ((freeFrom == null) != (freeTo == null) || freeFrom != null && !freeFrom.isBefore(freeTo)) {
+            throw new IllegalArgumentException("freeFrom and freeTo go together, freeFrom before freeTo");
+        }
+        int limit = size == null ? Integer.MAX_VALUE : size;
+        Predicate<Item> free = freeFrom == null ? item -> true
+                : item -> bookingStorage.isFree(item.getId(), freeFrom, freeTo);
+        List<Item> page = new ArrayList<>();
+        if (ranked) {
+            List<String> terms = SearchRanking.terms(filter.text());
+            if (terms.isEmpty()) {
+                searchResults.record(0);
+                return;
+            }
+            // хранилище отбирает по самому длинному слову, остальные слова проверяет ранжирование
+            SearchRanking.Top top = new SearchRanking.Top(terms, from, limit);
+            storage.filter(new ItemFilter(terms.get(0), filter.available(), filter.ownerId()), item -> {
+                if (free.test(item)) {
+                    top.offer(item);
+                }
+                return true;
+            });
+            page = top.page();
+        } else if (limit > 0) {
+            List<Item> collected = page;
+            int[] skipped = new int[1];
+            storage.filter(filter, item -> {
+                if (!free.test(item)) {
+                    return true;
+                }
+                if (skipped[0] < from) {
+                    skipped[0]++;
+                    return true;
+                }
+                collected.add(item);
+                return collected.size() < limit;
+            });
+        }
+        searchResults.record(page.size());
+        page.forEach(sink);
+    }
+
+    /**
+     * Loads through the cache atomically per key: an eviction that comes while the item is being
+     * read waits for the load and then drops it, so a value read before an update is never
+     * cached after the update's eviction.
+     */
+    private Item cachedItem(Long itemId) {
+        try {
+            return itemCache.get(itemId, () -> storage.findById(itemId)
+                    .orElseThrow(() -> new NotFoundException("Item not found: " + itemId)));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof NotFoundException notFound) {
+                throw notFound;
+            }
+            throw e;
+        }
+    }
+
+    private void changed(ChangeEvent.Type type, Item item) {
+        changeLog.publish(ChangeEvent.Entity.ITEM, type, item.getId(), item.getVersion(), item.getUpdatedAt());
+    }
+
+    private static long bookingId(Optional<Booking> booking) {
+        return booking.map(Booking::getId).orElse(0L);
+    }
+
+    private static void checkPage(int from, Integer size) {
+        if (from < 0) {
+            throw new IllegalArgumentException("from must not be negative");
+        }
+        if (size != null && size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+    }
+
+    private ItemDto attachBookings(ItemDto dto, LocalDateTime now) {
+        dto.setLastBooking(bookingStorage.findLastApproved(dto.getId(), now).map(BookingMapper::toShortDto).orElse(null));
+        dto.setNextBooking(bookingStorage.findNextApproved(dto.getId(), now).map(BookingMapper::toShortDto).orElse(null));
+        return dto;
+    }
+
+    @Override
+    public void exportAll(Consumer<ItemDto> sink) {
+        storage.forEach(item -> sink.accept(ItemMapper.toDto(item)));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Relevance order for {@code /items/search?sort=relevance}: every query word must occur in the
+ * name or the description; each occurrence in the name counts {@link #NAME_WEIGHT} times, one in
+ * the description once. Ties go to the lower id, so pages are stable.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class SearchRanking {
+    static final int NAME_WEIGHT = 3;
+
+    /** worst first: the head of a bounded heap is the entry the next better match evicts */
+    private static final Comparator<Scored> WORST_FIRST = Comparator.comparingInt(Scored::score)
+            .thenComparing(Comparator.comparingLong(Scored::id).reversed());
+
+    /** Lowercased distinct words of the query, longest first. */
+    static List<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).trim().split("\\s+"))
+                .distinct()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toList();
+    }
+
+    /** @return 0 if some term is missing from both fields */
+    static int score(Item item, List<String> terms) {
+        String name = item.getName() == null ? "" : item.getName().toLowerCase(Locale.ROOT);
+        String description = item.getDescription() == null ? "" : item.getDescription().toLowerCase(Locale.ROOT);
+        int total = 0;
+        for (String term : terms) {
+            int score = NAME_WEIGHT * occurrences(name, term) + occurrences(description, term);
+            if (score == 0) {
+                return 0;
+            }
+            total += score;
+        }
+        return total;
+    }
+
+    /** Ranks {@code from .. from + size} of {@code candidates}; see {@link Top}. */
+    static List<Item> top(Collection<Item> candidates, List<String> terms, int from, int size) {
+        Top top = new Top(terms, from, size);
+        candidates.forEach(top::offer);
+        return top.page();
+    }
+
+    /**
+     * Selects ranks {@code from .. from + size} with a heap bounded by {@code from + size}:
+     * O(n log k) instead of sorting every match. Candidates are offered one at a time, straight
+     * from a store scan, so only the heap and the page are ever materialized.
+     */
+    static final class Top {
+        private final List<String> terms;
+        private final int from;
+        private final int k;
+        private final PriorityQueue<Scored> heap = new PriorityQueue<>(WORST_FIRST);
+
+        Top(List<String> terms, int from, int size) {
+            this.terms = terms;
+            this.from = from;
+            this.k = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        }
+
+        void offer(Item item) {
+            if (k <= from) {
+                return;
+            }
+            int score = score(item, terms);
+            if (score == 0) {
+                return;
+            }
+            Scored scored = new Scored(score, item.getId(), item);
+            if (heap.size() < k) {
+                heap.add(scored);
+            } else if (WORST_FIRST.compare(scored, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+
+        /** Drains the heap, so call it once, after the last offer. */
+        List<Item> page() {
+            Item[] ranked = new Item[heap.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = heap.poll().item();
+            }
+            List<Item> page = new ArrayList<>(Math.max(0, ranked.length - from));
+            for (int i = from; i < ranked.length; i++) {
+                page.add(ranked[i]);
+            }
+            return page;
+        }
+    }
+
+    private static int occurrences(String text, String term) {
+        int count = 0;
+        for (int i = text.indexOf(term); i >= 0; i = text.indexOf(term, i + term.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private record Scored(int score, long id, Item item) {
+    }
+}
@@ -0,0 +1,527 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
+import ru.practicum.shareit.common.persistence.StorageJournal;
+import ru.practicum.shareit.item.model.Item;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory item store laid out as columns indexed by {@code id - 1}: owner and request ids in
+ * {@code long[]}, availability in a flag byte, name and description as UTF-8 {@code byte[]}.
+ * An item costs about 75 bytes plus its text instead of a map entry, an {@link Item} and
+ * boxed ids and strings; {@link Item} objects are only built for results.
+ *
+ * <p>Search scans the text columns; ASCII text (the common case) is matched on the raw bytes
+ * without decoding. Same results as {@link InMemoryItemStorage}, which trades memory for a
+ * trigram index.
+ */
+@Repository
+@ConditionalOnExpression("'${shareit.storage.type:memory}' == 'memory' and '${shareit.storage.item-layout:objects}' == 'columnar'")
+public class ColumnarItemStorage implements ItemStorage {
+    private static final int INITIAL_CAPACITY = 1024;
+    /** items materialized per read-lock hold in {@link #forEach}, so a slow consumer never blocks writers */
+    private static final int FOR_EACH_CHUNK = 1024;
+    private static final byte PRESENT = 1;
+    private static final byte AVAILABLE = 2;
+    private static final byte NAME_ASCII = 4;
+    private static final byte DESCRIPTION_ASCII = 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] owners = new long[INITIAL_CAPACITY];
+    /** 0 when the item was not posted for a request */
+    private long[] requests = new long[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    /** epoch millis */
+    private long[] updatedAt = new long[INITIAL_CAPACITY];
+    private byte[][] names = new byte[INITIAL_CAPACITY][];
+    private byte[][] descriptions = new byte[INITIAL_CAPACITY][];
+    private final Map<Long, SlotList> ownerIndex = new HashMap<>();
+    private final Map<Long, SlotList> requestIndex = new HashMap<>();
+    /** slots of deleted owners still waiting for {@link #purgeOwner}; reads skip them */
+    private final Map<Long, SlotList> hidden = new HashMap<>();
+    private long nextId = 1;
+    private int count;
+    /** set only when persistence is enabled; every change is logged before it becomes visible */
+    private StorageJournal journal;
+
+    /** Loads the recovered items and starts journaling; called once at startup. */
+    @Autowired(required = false)
+    public void setJournal(StorageJournal journal) {
+        List<Item> recovered = new ArrayList<>(journal.takeRecoveredItems());
+        // индексы владельцев и запросов рассчитаны на возрастающие id
+        recovered.sort(Comparator.comparing(Item::getId));
+        lock.writeLock().lock();
+        try {
+            for (Item item : recovered) {
+                put(item);
+            }
+            nextId = Math.max(nextId, journal.nextItemId());
+            ensureCapacity((int) (nextId - 1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        this.journal = journal;
+    }
+
+    @Override
+    public Item save(Item item) {
+        return saveAll(List.of(item)).get(0);
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> batch) {
+        long lsn = 0;
+        beginChange();
+        lock.writeLock().lock();
+        try {
+            Instant now = Instant.now();
+            for (Item item : batch) {
+                item.setId(nextId++);
+                item.setVersion(1);
+                item.setUpdatedAt(now);
+            }
+            ensureCapacity((int) (nextId - 1));
+            if (journal != null) {
+                lsn = journal.putItems(batch);
+            }
+            for (Item item : batch) {
+                put(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+            endChange();
+        }
+        sync(lsn);
+        return batch;
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(id);
+            return slot < 0 ? Optional.empty() : Optional.of(item(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> findByIds(Collection<Long> ids) {
+        List<Item> found = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                int slot = slot(id);
+                if (slot >= 0) {
+                    found.add(item(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    @Override
+    public List<Item> findByOwner(Long ownerId, int from, int size) {
+        List<Item> page = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            SlotList slots = ownerIndex.get(ownerId);
+            if (slots == null) {
+                return page;
+            }
+            for (int i = from; i < slots.size && page.size() < size; i++) {
+                page.add(item(slots.slots[i]));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Item updatePartial(Long id, Item patch, Long ownerId, Long expectedVersion) {
+        Item updated;
+        long lsn = 0;
+        beginChange();
+        lock.writeLock().lock();
+        try {
+            int slot = slot(id);
+            if (slot < 0 || ownerId == null || owners[slot] != ownerId) {
+                return null;
+            }
+            if (expectedVersion != null && versions[slot] != expectedVersion) {
+                throw new PreconditionFailedException("Item " + id + " is at version " + versions[slot]);
+            }
+            updated = item(slot);
+            if (patch.getName() != null) {
+                updated.setName(patch.getName());
+            }
+            if (patch.getDescription() != null) {
+                updated.setDescription(patch.getDescription());
+            }
+            if (patch.getAvailable() != null) {
+                updated.setAvailable(patch.getAvailable());
+            }
+            updated.setVersion(versions[slot] + 1);
+            updated.setUpdatedAt(Instant.now());
+            if (journal != null) {
+                lsn = journal.putItems(List.of(updated));
+            }
+            names[slot] = utf8(updated.getName());
+            descriptions[slot] = utf8(updated.getDescription());
+            flags[slot] = flags(updated, names[slot], descriptions[slot]);
+            versions[slot] = updated.getVersion();
+            updatedAt[slot] = updated.getUpdatedAt().toEpochMilli();
+            ownerIndex.get(ownerId).version++;
+        } finally {
+            lock.writeLock().unlock();
+            endChange();
+        }
+        sync(lsn);
+        return updated;
+    }
+
+    @Override
+    public void hideOwner(Long ownerId) {
+        long lsn = 0;
+        beginChange();
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                lsn = journal.deleteItemsOf(ownerId);
+            }
+            SlotList slots = ownerIndex.remove(ownerId);
+            if (slots != null) {
+                hidden.put(ownerId, slots);
+            }
+        } finally {
+            lock.writeLock().unlock();
+            endChange();
+        }
+        sync(lsn);
+    }
+
+    /** Each call holds the write lock for at most {@code limit} slots. */
+    @Override
+    public int purgeOwner(Long ownerId, int limit) {
+        lock.writeLock().lock();
+        try {
+            SlotList slots = hidden.get(ownerId);
+            if (slots == null) {
+                return 0;
+            }
+            int purged = 0;
+            while (purged < limit && slots.size > 0) {
+                int slot = slots.slots[--slots.size];
+                if (requests[slot] != 0) {
+                    SlotList requestSlots = requestIndex.get(requests[slot]);
+                    if (requestSlots != null) {
+                        requestSlots.remove(slot);
+                    }
+                }
+                flags[slot] = 0;
+                names[slot] = null;
+                descriptions[slot] = null;
+                requests[slot] = 0;
+                count--;
+                purged++;
+            }
+            if (slots.size == 0) {
+                hidden.remove(ownerId);
+            }
+            return purged;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        List<Item> found = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return found;
+        }
+        String q = text.toLowerCase(Locale.ROOT);
+        byte[] asciiQuery = isAscii(q) ? q.getBytes(StandardCharsets.US_ASCII) : null;
+        lock.readLock().lock();
+        try {
+            int end = (int) (nextId - 1);
+            for (int slot = 0; slot < end; slot++) {
+                byte f = flags[slot];
+                if ((f & (PRESENT | AVAILABLE)) == (PRESENT | AVAILABLE)
+                        && (matches(names[slot], (f & NAME_ASCII) != 0, q, asciiQuery)
+                        || matches(descriptions[slot], (f & DESCRIPTION_ASCII) != 0, q, asciiQuery))
+                        && !hidden(slot)) {
+                    found.add(item(slot));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long ownerVersion(Long ownerId) {
+        lock.readLock().lock();
+        try {
+            SlotList slots = ownerIndex.get(ownerId);
+            return slots == null ? 0 : slots.version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Item> action) {
+        List<Item> chunk = new ArrayList<>(FOR_EACH_CHUNK);
+        int slot = 0;
+        while (true) {
+            lock.readLock().lock();
+            try {
+                int end = (int) (nextId - 1);
+                for (; slot < end && chunk.size() < FOR_EACH_CHUNK; slot++) {
+                    if ((flags[slot] & PRESENT) != 0 && !hidden(slot)) {
+                        chunk.add(item(slot));
+                    }
+                }
+                if (chunk.isEmpty() && slot >= end) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            chunk.forEach(action);
+            chunk.clear();
+        }
+    }
+
+    @Override
+    public List<Item> findByRequestIds(Collection<Long> requestIds) {
+        List<Item> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long requestId : requestIds) {
+                SlotList slots = requestIndex.get(requestId);
+                if (slots == null) {
+                    continue;
+                }
+                for (int i = 0; i < slots.size; i++) {
+                    if (!hidden(slots.slots[i])) {
+                        found.add(item(slots.slots[i]));
+                    }
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Writes a new item into its slot; caller holds the write lock. */
+    private void put(Item item) {
+        int slot = (int) (item.getId() - 1);
+        ensureCapacity(slot + 1);
+        byte[] name = utf8(item.getName());
+        byte[] description = utf8(item.getDescription());
+        owners[slot] = item.getOwnerId();
+        requests[slot] = item.getRequestId() == null ? 0 : item.getRequestId();
+        names[slot] = name;
+        descriptions[slot] = description;
+        flags[slot] = flags(item, name, description);
+        versions[slot] = item.getVersion();
+        updatedAt[slot] = item.getUpdatedAt() == null ? 0 : item.getUpdatedAt().toEpochMilli();
+        SlotList ownerSlots = ownerIndex.computeIfAbsent(item.getOwnerId(), k -> new SlotList());
+        ownerSlots.add(slot);
+        ownerSlots.version++;
+        if (item.getRequestId() != null) {
+            requestIndex.computeIfAbsent(item.getRequestId(), k -> new SlotList()).add(slot);
+        }
+        count++;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= flags.length) {
+            return;
+        }
+        int capacity = Math.max(needed, flags.length + (flags.length >> 1));
+        owners = Arrays.copyOf(owners, capacity);
+        requests = Arrays.copyOf(requests, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+    }
+
+    /** @return the slot of a stored item, or -1 */
+    private int slot(Long id) {
+        if (id == null || id < 1 || id >= nextId) {
+            return -1;
+        }
+        int slot = (int) (id - 1);
+        return (flags[slot] & PRESENT) != 0 && !hidden(slot) ? slot : -1;
+    }
+
+    private boolean hidden(int slot) {
+        return !hidden.isEmpty() && hidden.containsKey(owners[slot]);
+    }
+
+    private Item item(int slot) {
+        Item item = new Item((long) slot + 1, string(names[slot]), string(descriptions[slot]),
+                (flags[slot] & AVAILABLE) != 0, owners[slot], requests[slot] == 0 ? null : requests[slot]);
+        item.setVersion(versions[slot]);
+        item.setUpdatedAt(updatedAt[slot] == 0 ? null : Instant.ofEpochMilli(updatedAt[slot]));
+        return item;
+    }
+
+    /** Brackets a log append and its apply so a snapshot never rotates between them. */
+    private void beginChange() {
+        if (journal != null) {
+            journal.beginChange();
+        }
+    }
+
+    private void endChange() {
+        if (journal != null) {
+            journal.endChange();
+        }
+    }
+
+    private void sync(long lsn) {
+        if (journal != null) {
+            journal.sync(lsn);
+        }
+    }
+
+    private static byte flags(Item item, byte[] name, byte[] description) {
+        int f = PRESENT;
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            f |= AVAILABLE;
+        }
+        if (isAscii(name)) {
+            f |= NAME_ASCII;
+        }
+        if (isAscii(description)) {
+            f |= DESCRIPTION_ASCII;
+        }
+        return (byte) f;
+    }
+
+    /**
+     * Text and queries are lowercased in {@link Locale#ROOT}, which keeps ASCII text ASCII (a
+     * Turkish default locale would turn {@code I} into dotless {@code ı}). So ASCII text can only match
+     * an ASCII query, and then a byte-wise comparison gives the same answer as
+     * {@code toLowerCase(Locale.ROOT).contains}.
+     */
+    private static boolean matches(byte[] text, boolean ascii, String lowerQuery, byte[] asciiQuery) {
+        if (text == null) {
+            return false;
+        }
+        if (!ascii) {
+            return string(text).toLowerCase(Locale.ROOT).contains(lowerQuery);
+        }
+        return asciiQuery != null && containsIgnoreCase(text, asciiQuery);
+    }
+
+    private static boolean containsIgnoreCase(byte[] text, byte[] lowerQuery) {
+        int last = text.length - lowerQuery.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < lowerQuery.length; j++) {
+                byte b = text[i + j];
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != lowerQuery[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        if (bytes == null) {
+            return true;
+        }
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] bytes) {
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Growable list of slots, ascending because ids are assigned under the write lock. */
+    private static final class SlotList {
+        int[] slots = new int[4];
+        int size;
+        /** bumped on every write to the listed items; only read for the owner index */
+        long version;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            int i = Arrays.binarySearch(slots, 0, size, slot);
+            if (i >= 0) {
+                System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                size--;
+            }
+        }
+    }
+}
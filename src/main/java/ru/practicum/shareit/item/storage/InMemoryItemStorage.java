@@ -1,73 +1,454 @@
 package ru.practicum.shareit.item.storage;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
+import ru.practicum.shareit.common.persistence.StorageJournal;
 import ru.practicum.shareit.item.model.Item;
+
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-public class InMemoryItemStorage {
+/**
+ * Items live in a {@link ConcurrentHashMap} and are never modified once stored: an update
+ * replaces the entry with a patched copy inside {@code computeIfPresent}, so lock-free readers
+ * ({@code findById}, {@code search}, {@code findByOwner}, snapshots) always see either the whole
+ * old version or the whole new one. Callers must treat returned items as read-only.
+ *
+ * <p>Owner and availability are indexed by {@link ItemBitmap}s over item ids, which
+ * {@link #filter} intersects with each other and with the text index. Texts too short for that
+ * index are checked item by item, split across a {@link ParallelScan} once there are enough.
+ */
+@Repository
+@ConditionalOnExpression("'${shareit.storage.type:memory}' == 'memory' and '${shareit.storage.item-layout:objects}' == 'objects'")
+public class InMemoryItemStorage implements ItemStorage {
     private final Map<Long, Item> items = new ConcurrentHashMap<>();
     private final AtomicLong seq = new AtomicLong(1);
+    private final Map<Long, ItemBitmap> ownerIndex = new ConcurrentHashMap<>();
+    private final ItemBitmap availableIndex = new ItemBitmap();
+    private final Map<Long, NavigableSet<Long>> requestIndex = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> ownerVersions = new ConcurrentHashMap<>();
+    private final ItemSearchIndex searchIndex = new ItemSearchIndex();
+    /** owners whose items are deleted but not purged yet; their items are skipped by every read */
+    private final Set<Long> hiddenOwners = ConcurrentHashMap.newKeySet();
+    /** set only when persistence is enabled; every change is logged before it becomes visible */
+    private StorageJournal journal;
+    /** null: every scan runs on the caller's thread */
+    private ParallelScan parallelScan;
+
+    /** Loads and indexes the recovered items and starts journaling; called once at startup. */
+    @Autowired(required = false)
+    public void setJournal(StorageJournal journal) {
+        List<Item> recovered = new ArrayList<>(journal.takeRecoveredItems());
+        index(recovered);
+        for (Item item : recovered) {
+            bumpOwner(item.getOwnerId());
+        }
+        seq.set(journal.nextItemId());
+        this.journal = journal;
+    }
+
+    /**
+     * Unindexed text scans over at least {@code threshold} candidates are split across
+     * {@code threads} threads, the caller included; 0 means one per processor, 1 turns it off.
+     */
+    @Autowired
+    public void setParallelScan(@Value("${shareit.search.parallel-threshold:100000}") long threshold,
+                                @Value("${shareit.search.parallel-threads:0}") int threads) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ParallelScan previous = parallelScan;
+        parallelScan = parallelism > 1 ? new ParallelScan(parallelism, threshold) : null;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /** Stops the scan threads along with the context. */
+    @PreDestroy
+    public void close() {
+        if (parallelScan != null) {
+            parallelScan.close();
+        }
+    }
 
+    @Override
     public Item save(Item item) {
         long id = seq.getAndIncrement();
         item.setId(id);
-        items.put(id, item);
+        item.setVersion(1);
+        item.setUpdatedAt(Instant.now());
+        long lsn;
+        beginChange();
+        try {
+            lsn = journal == null ? 0 : journal.putItems(List.of(item));
+            index(List.of(item));
+        } finally {
+            endChange();
+        }
+        bumpOwner(item.getOwnerId());
+        sync(lsn);
         return item;
     }
 
+    /** Allocates the whole id block with one CAS; nothing can fail once ids are assigned. */
+    @Override
+    public List<Item> saveAll(List<Item> batch) {
+        long first = seq.getAndAdd(batch.size());
+        Instant now = Instant.now();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(first + i);
+            batch.get(i).setVersion(1);
+            batch.get(i).setUpdatedAt(now);
+        }
+        long lsn;
+        beginChange();
+        try {
+            lsn = journal == null ? 0 : journal.putItems(batch);
+            index(batch);
+        } finally {
+            endChange();
+        }
+        for (Item item : batch) {
+            bumpOwner(item.getOwnerId());
+        }
+        sync(lsn);
+        return batch;
+    }
+
+    /** Bitmaps are updated once per owner for the whole batch, not once per item. */
+    private void index(List<Item> batch) {
+        List<Item> sorted = new ArrayList<>(batch);
+        sorted.sort(Comparator.comparing(Item::getId));
+        Map<Long, List<Item>> byOwner = new HashMap<>();
+        int[] available = new int[sorted.size()];
+        int availableCount = 0;
+        for (Item item : sorted) {
+            long id = item.getId();
+            items.put(id, item);
+            if (item.getRequestId() != null) {
+                requestIndex.computeIfAbsent(item.getRequestId(), k -> new ConcurrentSkipListSet<>()).add(id);
+            }
+            searchIndex.add(item);
+            byOwner.computeIfAbsent(item.getOwnerId(), k -> new ArrayList<>()).add(item);
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                available[availableCount++] = ItemBitmap.value(id);
+            }
+        }
+        for (Map.Entry<Long, List<Item>> owned : byOwner.entrySet()) {
+            int[] ids = new int[owned.getValue().size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = ItemBitmap.value(owned.getValue().get(i).getId());
+            }
+            ownerIndex.computeIfAbsent(owned.getKey(), k -> new ItemBitmap()).addAll(ids, ids.length);
+        }
+        availableIndex.addAll(available, availableCount);
+    }
+
+    @Override
     public Optional<Item> findById(Long id) {
-        return Optional.ofNullable(items.get(id));
+        return Optional.ofNullable(items.get(id)).filter(this::visible);
     }
 
-    public List<Item> findByOwner(Long ownerId) {
-        return items.values()
-                .stream()
-                .filter(i -> Objects.equals(i.getOwnerId(), ownerId))
-                .sorted(Comparator.comparing(Item::getId))
-                .collect(Collectors.toList());
+    @Override
+    public List<Item> findByIds(Collection<Long> ids) {
+        List<Item> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = items.get(id);
+            if (item != null && visible(item)) {
+                found.add(item);
+            }
+        }
+        return found;
     }
 
-    public Item updatePartial(Long id, Item patch, Long ownerId) {
-        Item ex = items.get(id);
-        if (ex == null) {
-            return null;
+    @Override
+    public List<Item> findByOwner(Long ownerId, int from, int size) {
+        ItemBitmap ids = ownerIndex.get(ownerId);
+        List<Item> page = new ArrayList<>();
+        if (ids == null || hiddenOwners.contains(ownerId) || size <= 0) {
+            return page;
         }
-        if (!Objects.equals(ex.getOwnerId(), ownerId)) {
+        ids.snapshot().forEach(from, id -> {
+            Item item = items.get((long) id);
+            if (item != null) {
+                page.add(item);
+            }
+            return page.size() < size;
+        });
+        return page;
+    }
+
+    /**
+     * Check, log and apply run inside the map's per-key lock, so If-Match cannot race another
+     * update; the stored item is swapped for a patched copy rather than modified.
+     */
+    @Override
+    public Item updatePartial(Long id, Item patch, Long ownerId, Long expectedVersion) {
+        long[] lsn = new long[1];
+        boolean[] applied = new boolean[1];
+        Item updated;
+        beginChange();
+        try {
+            updated = items.computeIfPresent(id, (key, ex) -> {
+                if (!Objects.equals(ex.getOwnerId(), ownerId) || !visible(ex)) {
+                    return ex;
+                }
+                if (expectedVersion != null && ex.getVersion() != expectedVersion) {
+                    throw new PreconditionFailedException("Item " + id + " is at version " + ex.getVersion());
+                }
+                Item after = patched(ex, patch);
+                if (journal != null) {
+                    lsn[0] = journal.putItems(List.of(after));
+                }
+                if (patch.getName() != null || patch.getDescription() != null) {
+                    searchIndex.replace(id, ItemSearchIndex.grams(ex), ItemSearchIndex.grams(after));
+                }
+                if (!Objects.equals(ex.getAvailable(), after.getAvailable())) {
+                    // читатели сверяют кандидатов с самой вещью, так что порядок здесь не важен
+                    if (Boolean.TRUE.equals(after.getAvailable())) {
+                        availableIndex.add(id);
+                    } else {
+                        availableIndex.remove(id);
+                    }
+                }
+                applied[0] = true;
+                return after;
+            });
+        } finally {
+            endChange();
+        }
+        if (!applied[0]) {
             return null;
         }
-        if (patch.getName() != null) {
-            ex.setName(patch.getName());
+        bumpOwner(ownerId);
+        sync(lsn[0]);
+        return updated;
+    }
+
+    /** The tombstone is set before it is logged, so a snapshot that misses the record never holds the items. */
+    @Override
+    public void hideOwner(Long ownerId) {
+        hiddenOwners.add(ownerId);
+        long lsn;
+        try {
+            lsn = journal == null ? 0 : journal.deleteItemsOf(ownerId);
+        } catch (RuntimeException e) {
+            hiddenOwners.remove(ownerId);
+            throw e;
+        }
+        bumpOwner(ownerId);
+        sync(lsn);
+    }
+
+    @Override
+    public int purgeOwner(Long ownerId, int limit) {
+        if (!hiddenOwners.contains(ownerId)) {
+            return 0;
+        }
+        ItemBitmap ids = ownerIndex.get(ownerId);
+        if (ids == null) {
+            hiddenOwners.remove(ownerId);
+            return 0;
+        }
+        int[] batch = new int[Math.max(0, Math.min(limit, ids.cardinality()))];
+        int[] taken = new int[1];
+        if (batch.length > 0) {
+            ids.snapshot().forEach(0, id -> {
+                batch[taken[0]++] = id;
+                return taken[0] < batch.length;
+            });
         }
-        if (patch.getDescription() != null) {
-            ex.setDescription(patch.getDescription());
+        int purged = 0;
+        for (int i = 0; i < taken[0]; i++) {
+            Item item = items.remove((long) batch[i]);
+            if (item == null) {
+                continue;
+            }
+            if (item.getRequestId() != null) {
+                NavigableSet<Long> requestIds = requestIndex.get(item.getRequestId());
+                if (requestIds != null) {
+                    requestIds.remove(item.getId());
+                }
+            }
+            searchIndex.remove(item);
+            purged++;
         }
-        if (patch.getAvailable() != null) {
-            ex.setAvailable(patch.getAvailable());
+        ids.removeAll(batch, taken[0]);
+        availableIndex.removeAll(batch, taken[0]);
+        if (ids.isEmpty()) {
+            ownerIndex.remove(ownerId, ids);
+            hiddenOwners.remove(ownerId);
         }
-        return ex;
+        return purged;
     }
 
+    @Override
+    public long ownerVersion(Long ownerId) {
+        AtomicLong version = ownerVersions.get(ownerId);
+        return version == null ? 0 : version.get();
+    }
+
+    @Override
     public List<Item> search(String text) {
-        if (text == null || text.isBlank()) {
-            return new ArrayList<>();
-        }
-        String q = text.toLowerCase();
-        return items.values()
-                .stream()
-                .filter(Item::getAvailable)
-                .filter(i ->
-                        (i.getName() != null && i.getName().toLowerCase().contains(q))
-                                || (i.getDescription() != null && i.getDescription().toLowerCase().contains(q))
-                )
-                .sorted(Comparator.comparing(Item::getId))
-                .collect(Collectors.toList());
+        List<Item> found = new ArrayList<>();
+        if (text != null) {
+            filter(ItemFilter.availableWith(text), found::add);
+        }
+        return found;
     }
-}
 
+    /**
+     * Owner and availability bitmaps are intersected chunk by chunk; then whichever is smaller,
+     * that intersection or the text posting list, drives the walk in id order while the other is
+     * probed. Only the survivors are read and checked against the item itself, so an index that a
+     * concurrent update has not reached yet can cost a candidate but never admit a wrong item.
+     * Without a usable posting list the text is checked on every candidate, in parallel above the
+     * threshold.
+     */
+    @Override
+    public void filter(ItemFilter filter, Predicate<Item> visitor) {
+        String q = filter.text() == null ? null : filter.text().toLowerCase(Locale.ROOT);
+        if (q != null && q.isBlank()) {
+            return;
+        }
+        ItemBitmap.Snapshot ids = null;
+        if (filter.ownerId() != null) {
+            ItemBitmap owned = ownerIndex.get(filter.ownerId());
+            if (owned == null || hiddenOwners.contains(filter.ownerId())) {
+                return;
+            }
+            ids = owned.snapshot();
+        }
+        if (Boolean.TRUE.equals(filter.available())) {
+            ids = ids == null ? availableIndex.snapshot() : ids.and(availableIndex.snapshot());
+        }
+        ItemSearchIndex.Posting posting = q == null ? null : searchIndex.candidates(q);
+        if (posting != null && (ids == null || posting.size < ids.cardinality())) {
+            for (Long id : posting.ids) {
+                if ((ids == null || ids.contains(id)) && !visitMatching(id, filter, q, visitor)) {
+                    return;
+                }
+            }
+        } else if (q != null && parallelScan != null
+                && parallelScan.appliesTo(ids == null ? seq.get() - 1 : ids.cardinality())) {
+            ItemBitmap.Snapshot candidates = ids;
+            parallelScan.scan(1, seq.get(), id -> matching(id, candidates, filter, q), visitor);
+        } else if (ids != null) {
+            ids.forEach(0, id -> visitMatching(id, filter, q, visitor));
+        } else {
+            long last = seq.get();
+            for (long id = 1; id < last; id++) {
+                if (!visitMatching(id, filter, q, visitor)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** The visible item behind {@code id} if it is among {@code ids} (any id when null) and matches. */
+    private Item matching(long id, ItemBitmap.Snapshot ids, ItemFilter filter, String lowerText) {
+        if (ids != null && !ids.contains(id)) {
+            return null;
+        }
+        Item item = items.get(id);
+        return item != null && visible(item) && ItemFilter.matches(filter, lowerText, item) ? item : null;
+    }
+
+    /** @return false once the visitor wants no more */
+    private boolean visitMatching(long id, ItemFilter filter, String lowerText, Predicate<Item> visitor) {
+        Item item = items.get(id);
+        return item == null || !visible(item) || !ItemFilter.matches(filter, lowerText, item) || visitor.test(item);
+    }
+
+    @Override
+    public List<Item> findByRequestIds(Collection<Long> requestIds) {
+        List<Item> found = new ArrayList<>();
+        for (Long requestId : requestIds) {
+            NavigableSet<Long> ids = requestIndex.get(requestId);
+            if (ids == null) {
+                continue;
+            }
+            for (Long id : ids) {
+                Item item = items.get(id);
+                if (item != null && visible(item)) {
+                    found.add(item);
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return items.size();
+    }
+
+    /** Walks the id range instead of the hash map so the export comes out in id order for free. */
+    @Override
+    public void forEach(Consumer<Item> action) {
+        long last = seq.get();
+        for (long id = 1; id < last; id++) {
+            Item item = items.get(id);
+            if (item != null && visible(item)) {
+                action.accept(item);
+            }
+        }
+    }
+
+    /** The next version of {@code ex}: a fresh object, {@code ex} itself stays untouched. */
+    private static Item patched(Item ex, Item patch) {
+        Item after = new Item(ex.getId(),
+                patch.getName() != null ? patch.getName() : ex.getName(),
+                patch.getDescription() != null ? patch.getDescription() : ex.getDescription(),
+                patch.getAvailable() != null ? patch.getAvailable() : ex.getAvailable(),
+                ex.getOwnerId(), ex.getRequestId());
+        after.setVersion(ex.getVersion() + 1);
+        after.setUpdatedAt(Instant.now());
+        return after;
+    }
+
+    private boolean visible(Item item) {
+        return hiddenOwners.isEmpty() || !hiddenOwners.contains(item.getOwnerId());
+    }
+
+    private void bumpOwner(Long ownerId) {
+        ownerVersions.computeIfAbsent(ownerId, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /** Brackets a log append and its apply so a snapshot never rotates between them. */
+    private void beginChange() {
+        if (journal != null) {
+            journal.beginChange();
+        }
+    }
+
+    private void endChange() {
+        if (journal != null) {
+            journal.endChange();
+        }
+    }
+
+    private void sync(long lsn) {
+        if (journal != null) {
+            journal.sync(lsn);
+        }
+    }
+}
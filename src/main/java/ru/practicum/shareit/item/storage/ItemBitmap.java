@@ -0,0 +1,465 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compressed set of item ids (as ints), in the layout of a roaring bitmap: ids are split by
+ * their high 16 bits into chunks, and each chunk stores its low 16 bits either as a sorted
+ * {@code char[]} (up to {@value #ARRAY_MAX} values) or as a 1024-word bit set. Sparse sets such
+ * as one owner's items stay small, dense ones such as "available" cost one bit per id, and
+ * intersecting two sets works chunk by chunk, word by word.
+ *
+ * <p>Readers take the current {@link Snapshot}, an immutable value, and never lock. Writers are
+ * serialized on the bitmap and publish a new snapshot that shares every untouched chunk, so a
+ * single add copies at most one chunk (8 KB); bulk loads should use {@link #addAll}.
+ */
+final class ItemBitmap {
+    static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    boolean contains(long id) {
+        return snapshot.contains(id);
+    }
+
+    int cardinality() {
+        return snapshot.cardinality;
+    }
+
+    boolean isEmpty() {
+        return snapshot.cardinality == 0;
+    }
+
+    synchronized void add(long id) {
+        int value = value(id);
+        snapshot = snapshot.with((char) (value >>> 16), c -> c == null ? Container.of((char) value) : c.add((char) value));
+    }
+
+    synchronized void remove(long id) {
+        int value = value(id);
+        snapshot = snapshot.with((char) (value >>> 16), c -> c == null ? null : c.remove((char) value));
+    }
+
+    /** Adds many ids copying each touched chunk once; {@code ids} must be sorted ascending. */
+    synchronized void addAll(int[] ids, int length) {
+        Snapshot current = snapshot;
+        for (int i = 0; i < length; ) {
+            char high = (char) (ids[i] >>> 16);
+            int end = i;
+            while (end < length && (ids[end] >>> 16) == high) {
+                end++;
+            }
+            int from = i;
+            int to = end;
+            current = current.with(high, c -> Container.addAll(c, ids, from, to));
+            i = end;
+        }
+        snapshot = current;
+    }
+
+    /** Removes many ids copying each touched chunk once; {@code ids} must be sorted ascending. */
+    synchronized void removeAll(int[] ids, int length) {
+        Snapshot current = snapshot;
+        for (int i = 0; i < length; ) {
+            char high = (char) (ids[i] >>> 16);
+            int end = i;
+            while (end < length && (ids[end] >>> 16) == high) {
+                end++;
+            }
+            int from = i;
+            int to = end;
+            current = current.with(high, c -> c == null ? null : c.removeAll(ids, from, to));
+            i = end;
+        }
+        snapshot = current;
+    }
+
+    static int value(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Id out of bitmap range: " + id);
+        }
+        return (int) id;
+    }
+
+    /** An immutable state of the set: chunk keys in ascending order and their containers. */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new char[0], new Container[0], 0);
+
+        private final char[] keys;
+        private final Container[] containers;
+        private final int cardinality;
+
+        private Snapshot(char[] keys, Container[] containers, int cardinality) {
+            this.keys = keys;
+            this.containers = containers;
+            this.cardinality = cardinality;
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        boolean contains(long id) {
+            if (id < 0 || id > Integer.MAX_VALUE) {
+                return false;
+            }
+            int i = Arrays.binarySearch(keys, (char) (id >>> 16));
+            return i >= 0 && containers[i].contains((char) id);
+        }
+
+        /**
+         * Visits ids in ascending order, skipping the first {@code skip}; whole chunks are skipped
+         * by their cardinality. Stops when the visitor returns false.
+         *
+         * @return false if the visitor stopped the walk
+         */
+        boolean forEach(int skip, IntPredicate visitor) {
+            for (int i = 0; i < keys.length; i++) {
+                Container container = containers[i];
+                if (skip >= container.cardinality()) {
+                    skip -= container.cardinality();
+                    continue;
+                }
+                if (!container.forEach(keys[i] << 16, skip, visitor)) {
+                    return false;
+                }
+                skip = 0;
+            }
+            return true;
+        }
+
+        /** Ids in both sets; chunks present on one side only are never looked at. */
+        Snapshot and(Snapshot other) {
+            int capacity = Math.min(keys.length, other.keys.length);
+            char[] outKeys = new char[capacity];
+            Container[] outContainers = new Container[capacity];
+            int n = 0;
+            int total = 0;
+            for (int i = 0, j = 0; i < keys.length && j < other.keys.length; ) {
+                if (keys[i] < other.keys[j]) {
+                    i++;
+                } else if (keys[i] > other.keys[j]) {
+                    j++;
+                } else {
+                    Container both = containers[i].and(other.containers[j]);
+                    if (both != null) {
+                        outKeys[n] = keys[i];
+                        outContainers[n++] = both;
+                        total += both.cardinality();
+                    }
+                    i++;
+                    j++;
+                }
+            }
+            return new Snapshot(Arrays.copyOf(outKeys, n), Arrays.copyOf(outContainers, n), total);
+        }
+
+        /** A copy with the chunk {@code high} replaced by {@code change(old)}; {@code null} drops the chunk. */
+        private Snapshot with(char high, UnaryOperator<Container> change) {
+            int i = Arrays.binarySearch(keys, high);
+            Container before = i >= 0 ? containers[i] : null;
+            Container after = change.apply(before);
+            if (after == before) {
+                return this;
+            }
+            int total = cardinality - (before == null ? 0 : before.cardinality())
+                    + (after == null ? 0 : after.cardinality());
+            if (i >= 0 && after != null) {
+                Container[] copy = containers.clone();
+                copy[i] = after;
+                return new Snapshot(keys, copy, total);
+            }
+            if (i >= 0) {
+                char[] outKeys = new char[keys.length - 1];
+                Container[] outContainers = new Container[keys.length - 1];
+                System.arraycopy(keys, 0, outKeys, 0, i);
+                System.arraycopy(keys, i + 1, outKeys, i, keys.length - i - 1);
+                System.arraycopy(containers, 0, outContainers, 0, i);
+                System.arraycopy(containers, i + 1, outContainers, i, keys.length - i - 1);
+                return new Snapshot(outKeys, outContainers, total);
+            }
+            int at = -i - 1;
+            char[] outKeys = new char[keys.length + 1];
+            Container[] outContainers = new Container[keys.length + 1];
+            System.arraycopy(keys, 0, outKeys, 0, at);
+            System.arraycopy(keys, at, outKeys, at + 1, keys.length - at);
+            System.arraycopy(containers, 0, outContainers, 0, at);
+            System.arraycopy(containers, at, outContainers, at + 1, keys.length - at);
+            outKeys[at] = high;
+            outContainers[at] = after;
+            return new Snapshot(outKeys, outContainers, total);
+        }
+    }
+
+    /** Low 16 bits of the ids of one chunk; never empty, never modified once built. */
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        /** @return this container if the value is already there */
+        abstract Container add(char low);
+
+        /** @return this container if the value is absent, {@code null} if nothing is left */
+        abstract Container remove(char low);
+
+        abstract Container removeAll(int[] ids, int from, int to);
+
+        /** @return {@code null} if the intersection is empty */
+        abstract Container and(Container other);
+
+        abstract boolean forEach(int base, int skip, IntPredicate visitor);
+
+        static Container of(char low) {
+            return new ArrayContainer(new char[]{low});
+        }
+
+        /** {@code existing} plus the low halves of {@code ids[from, to)}, all from one chunk and sorted. */
+        static Container addAll(Container existing, int[] ids, int from, int to) {
+            if (to - from == 1) {
+                return existing == null ? of((char) ids[from]) : existing.add((char) ids[from]);
+            }
+            long[] words = new long[WORDS];
+            if (existing instanceof BitmapContainer bitmap) {
+                System.arraycopy(bitmap.words, 0, words, 0, WORDS);
+            } else if (existing instanceof ArrayContainer array) {
+                for (char low : array.values) {
+                    words[low >>> 6] |= 1L << low;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                char low = (char) ids[i];
+                words[low >>> 6] |= 1L << low;
+            }
+            return BitmapContainer.compact(words);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int i = Arrays.binarySearch(values, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (values.length == ARRAY_MAX) {
+                long[] words = new long[WORDS];
+                for (char value : values) {
+                    words[value >>> 6] |= 1L << value;
+                }
+                words[low >>> 6] |= 1L << low;
+                return new BitmapContainer(words, ARRAY_MAX + 1);
+            }
+            int at = -i - 1;
+            char[] out = new char[values.length + 1];
+            System.arraycopy(values, 0, out, 0, at);
+            out[at] = low;
+            System.arraycopy(values, at, out, at + 1, values.length - at);
+            return new ArrayContainer(out);
+        }
+
+        @Override
+        Container remove(char low) {
+            int i = Arrays.binarySearch(values, low);
+            if (i < 0) {
+                return this;
+            }
+            if (values.length == 1) {
+                return null;
+            }
+            char[] out = new char[values.length - 1];
+            System.arraycopy(values, 0, out, 0, i);
+            System.arraycopy(values, i + 1, out, i, values.length - i - 1);
+            return new ArrayContainer(out);
+        }
+
+        @Override
+        Container removeAll(int[] ids, int from, int to) {
+            char[] out = new char[values.length];
+            int n = 0;
+            int j = from;
+            for (char value : values) {
+                while (j < to && (char) ids[j] < value) {
+                    j++;
+                }
+                if (j < to && (char) ids[j] == value) {
+                    continue;
+                }
+                out[n++] = value;
+            }
+            if (n == values.length) {
+                return this;
+            }
+            return n == 0 ? null : new ArrayContainer(Arrays.copyOf(out, n));
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] out = new char[values.length];
+            int n = 0;
+            if (other instanceof ArrayContainer array) {
+                char[] theirs = array.values;
+                for (int i = 0, j = 0; i < values.length && j < theirs.length; ) {
+                    if (values[i] < theirs[j]) {
+                        i++;
+                    } else if (values[i] > theirs[j]) {
+                        j++;
+                    } else {
+                        out[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (char value : values) {
+                    if (other.contains(value)) {
+                        out[n++] = value;
+                    }
+                }
+            }
+            return n == 0 ? null : new ArrayContainer(n == values.length ? out : Arrays.copyOf(out, n));
+        }
+
+        @Override
+        boolean forEach(int base, int skip, IntPredicate visitor) {
+            for (int i = skip; i < values.length; i++) {
+                if (!visitor.test(base | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words;
+        final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        /** The smaller of the two layouts for these bits, {@code null} if none is set. */
+        static Container compact(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new BitmapContainer(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[n++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & 1L << low) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            if (contains(low)) {
+                return this;
+            }
+            long[] out = words.clone();
+            out[low >>> 6] |= 1L << low;
+            return new BitmapContainer(out, cardinality + 1);
+        }
+
+        @Override
+        Container remove(char low) {
+            if (!contains(low)) {
+                return this;
+            }
+            long[] out = words.clone();
+            out[low >>> 6] &= ~(1L << low);
+            return cardinality - 1 > ARRAY_MAX ? new BitmapContainer(out, cardinality - 1) : compact(out);
+        }
+
+        @Override
+        Container removeAll(int[] ids, int from, int to) {
+            long[] out = words.clone();
+            for (int i = from; i < to; i++) {
+                char low = (char) ids[i];
+                out[low >>> 6] &= ~(1L << low);
+            }
+            return compact(out);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] theirs = ((BitmapContainer) other).words;
+            long[] out = new long[WORDS];
+            for (int w = 0; w < WORDS; w++) {
+                out[w] = words[w] & theirs[w];
+            }
+            return compact(out);
+        }
+
+        @Override
+        boolean forEach(int base, int skip, IntPredicate visitor) {
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                if (skip > 0) {
+                    int bits = Long.bitCount(word);
+                    if (skip >= bits) {
+                        skip -= bits;
+                        continue;
+                    }
+                    for (; skip > 0; skip--) {
+                        word &= word - 1;
+                    }
+                }
+                for (; word != 0; word &= word - 1) {
+                    if (!visitor.test(base | w << 6 | Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Locale;
+
+/**
+ * Criteria of {@link ItemStorage#filter}; a {@code null} field does not restrict.
+ *
+ * @param text      case-insensitive substring of the name or description
+ * @param available required availability
+ * @param ownerId   required owner
+ */
+public record ItemFilter(String text, Boolean available, Long ownerId) {
+
+    /** What {@link ItemStorage#search} looks for. */
+    public static ItemFilter availableWith(String text) {
+        return new ItemFilter(text, true, null);
+    }
+
+    /** The final check of every candidate, whatever index produced it; {@code lowerText} is the lowercased text. */
+    static boolean matches(ItemFilter filter, String lowerText, Item item) {
+        return (filter.available() == null || filter.available().equals(item.getAvailable()))
+                && (filter.ownerId() == null || filter.ownerId().equals(item.getOwnerId()))
+                && (lowerText == null || contains(item.getName(), lowerText) || contains(item.getDescription(), lowerText));
+    }
+
+    private static boolean contains(String field, String lowerText) {
+        return field != null && field.toLowerCase(Locale.ROOT).contains(lowerText);
+    }
+}
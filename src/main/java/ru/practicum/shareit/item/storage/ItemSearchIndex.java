@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Inverted trigram index over lowercased item names and descriptions.
+ * Every substring of length >= 3 contains all of its own trigrams, so the posting list
+ * of any query trigram is a superset of the items that can match the query.
+ */
+class ItemSearchIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+
+    void add(Item item) {
+        for (String gram : grams(item)) {
+            addPosting(gram, item.getId());
+        }
+    }
+
+    void remove(Item item) {
+        for (String gram : grams(item)) {
+            removePosting(gram, item.getId());
+        }
+    }
+
+    /** Re-indexes an item whose name/description changed from {@code before} to {@code after}. */
+    void replace(Long id, Set<String> before, Set<String> after) {
+        // сначала добавляем новые граммы, чтобы конкурентный поиск не потерял вещь
+        for (String gram : after) {
+            if (!before.contains(gram)) {
+                addPosting(gram, id);
+            }
+        }
+        for (String gram : before) {
+            if (!after.contains(gram)) {
+                removePosting(gram, id);
+            }
+        }
+    }
+
+    /**
+     * Returns id-ordered candidates for a lowercased query: the shortest posting list among the
+     * query trigrams. Returns {@code null} when the query is too short for the index to apply.
+     */
+    Posting candidates(String lowerQuery) {
+        if (lowerQuery.length() < GRAM_LENGTH) {
+            return null;
+        }
+        Posting best = null;
+        for (int i = 0; i + GRAM_LENGTH <= lowerQuery.length(); i++) {
+            Posting posting = postings.get(lowerQuery.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return Posting.EMPTY;
+            }
+            if (best == null || posting.size < best.size) {
+                best = posting;
+            }
+        }
+        return best;
+    }
+
+    static Set<String> grams(Item item) {
+        Set<String> grams = new HashSet<>();
+        collect(item.getName(), grams);
+        collect(item.getDescription(), grams);
+        return grams;
+    }
+
+    private static void collect(String text, Set<String> grams) {
+        if (text == null) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+            grams.add(lower.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+    private void addPosting(String gram, Long id) {
+        postings.compute(gram, (k, posting) -> {
+            Posting p = posting == null ? new Posting() : posting;
+            if (p.ids.add(id)) {
+                p.size++;
+            }
+            return p;
+        });
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (k, posting) -> {
+            if (posting.ids.remove(id)) {
+                posting.size--;
+            }
+            return posting.size == 0 ? null : posting;
+        });
+    }
+
+    /** Id-ordered posting list; size is tracked separately because skip-list size() is O(n). */
+    static final class Posting {
+        static final Posting EMPTY = new Posting();
+
+        final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+        volatile int size;
+    }
+}
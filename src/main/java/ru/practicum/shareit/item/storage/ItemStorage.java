@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/** Item persistence SPI; the backend is selected by {@code shareit.storage.type}. */
+public interface ItemStorage {
+    Item save(Item item);
+
+    /** Stores every item of the batch in input order, or none of them. */
+    List<Item> saveAll(List<Item> items);
+
+    Optional<Item> findById(Long id);
+
+    /** Those of the items that are visible, in no particular order; one lookup for the whole set. */
+    default List<Item> findByIds(Collection<Long> ids) {
+        List<Item> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    /** Returns at most {@code size} of the owner's items ordered by id, skipping the first {@code from}. */
+    List<Item> findByOwner(Long ownerId, int from, int size);
+
+    /** Applies non-null fields of the patch; returns {@code null} if the item is missing or not owned by ownerId. */
+    default Item updatePartial(Long id, Item patch, Long ownerId) {
+        return updatePartial(id, patch, ownerId, null);
+    }
+
+    /**
+     * Same as above, but only while the stored version equals {@code expectedVersion} (if given).
+     * Stores stamp the version and update time themselves: 1 on save, +1 on every update.
+     *
+     * @throws ru.practicum.shareit.common.exceptions.PreconditionFailedException if the version moved on
+     */
+    Item updatePartial(Long id, Item patch, Long ownerId, Long expectedVersion);
+
+    /**
+     * A number that changes after any of the owner's items is created or updated, and only
+     * after the change is visible to readers, so a tag read before the data is never newer.
+     */
+    long ownerVersion(Long ownerId);
+
+    /** Available items whose name or description contains the text, case-insensitively, ordered by id. */
+    List<Item> search(String text);
+
+    /**
+     * Hands visible items matching every criterion of the filter to the visitor in id order,
+     * until it returns false. A blank text matches nothing. This fallback walks the text
+     * matches or the whole catalog; indexed stores narrow the candidates first.
+     */
+    default void filter(ItemFilter filter, Predicate<Item> visitor) {
+        if (filter.text() != null && Boolean.TRUE.equals(filter.available())) {
+            for (Item item : search(filter.text())) {
+                if ((filter.ownerId() == null || filter.ownerId().equals(item.getOwnerId())) && !visitor.test(item)) {
+                    return;
+                }
+            }
+            return;
+        }
+        if (filter.text() != null && filter.text().isBlank()) {
+            return;
+        }
+        String text = filter.text() == null ? null : filter.text().toLowerCase(Locale.ROOT);
+        boolean[] stopped = new boolean[1];
+        forEach(item -> {
+            if (!stopped[0] && ItemFilter.matches(filter, text, item)) {
+                stopped[0] = !visitor.test(item);
+            }
+        });
+    }
+
+    /**
+     * Logical delete of every item of the owner: from now on none of them is returned or updated,
+     * at a constant cost however many items there are. The space is reclaimed by {@link #purgeOwner}.
+     */
+    void hideOwner(Long ownerId);
+
+    /**
+     * Physically removes up to {@code limit} items of a hidden owner together with their index
+     * entries, so a caller can reclaim a large catalog in short steps.
+     *
+     * @return how many items were removed; 0 once nothing is left
+     */
+    int purgeOwner(Long ownerId, int limit);
+
+    /** Stored items, including hidden ones that are not purged yet. */
+    long count();
+
+    /** Visits every item in id order without materializing the catalog. */
+    void forEach(Consumer<Item> action);
+
+    /** Items posted in response to any of the given requests, in one lookup. */
+    List<Item> findByRequestIds(Collection<Long> requestIds);
+}
@@ -0,0 +1,256 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/** Relational item storage; see schema-*.sql for the owner and trigram search indexes. */
+@Repository
+@ConditionalOnProperty(name = "shareit.storage.type", havingValue = "jdbc")
+public class JdbcItemStorage implements ItemStorage {
+    private static final String COLUMNS = "id, name, description, available, owner_id, request_id, version, updated_at";
+    private static final String INSERT = "INSERT INTO items (name, description, available, owner_id, request_id, "
+            + "version, updated_at) VALUES (?, ?, ?, ?, ?, 1, ?)";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    /** a page usually stops the cursor after a few rows, so they are fetched in small steps */
+    private static final int FILTER_FETCH_SIZE = 100;
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcItemStorage(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Item save(Item item) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        item.setVersion(1);
+        item.setUpdatedAt(Instant.now());
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT, new String[]{"id"});
+            setInsertValues(ps, item);
+            return ps;
+        }, keys);
+        item.setId(Objects.requireNonNull(keys.getKey()).longValue());
+        return item;
+    }
+
+    @Override
+    @Transactional
+    public List<Item> saveAll(List<Item> batch) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        Instant now = Instant.now();
+        for (Item item : batch) {
+            item.setVersion(1);
+            item.setUpdatedAt(now);
+        }
+        jdbc.batchUpdate(con -> con.prepareStatement(INSERT, new String[]{"id"}), new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setInsertValues(ps, batch.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(((Number) keyList.get(i).values().iterator().next()).longValue());
+        }
+        return batch;
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM items WHERE id = ?", JdbcItemStorage::mapRow, id)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Item> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbc.query("SELECT " + COLUMNS + " FROM items WHERE id IN (" + placeholders + ")",
+                JdbcItemStorage::mapRow, ids.toArray());
+    }
+
+    @Override
+    public List<Item> findByOwner(Long ownerId, int from, int size) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM items WHERE owner_id = ? ORDER BY id LIMIT ? OFFSET ?",
+                JdbcItemStorage::mapRow, ownerId, size, from);
+    }
+
+    @Override
+    public Item updatePartial(Long id, Item patch, Long ownerId, Long expectedVersion) {
+        String sql = "UPDATE items SET name = COALESCE(?, name), description = COALESCE(?, description), "
+                + "available = COALESCE(?, available), version = version + 1, updated_at = ? "
+                + "WHERE id = ? AND owner_id = ?";
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated = expectedVersion == null
+                ? jdbc.update(sql, patch.getName(), patch.getDescription(), patch.getAvailable(), now, id, ownerId)
+                : jdbc.update(sql + " AND version = ?", patch.getName(), patch.getDescription(),
+                        patch.getAvailable(), now, id, ownerId, expectedVersion);
+        if (updated == 0) {
+            Optional<Item> current = findById(id).filter(item -> Objects.equals(item.getOwnerId(), ownerId));
+            if (current.isPresent() && expectedVersion != null) {
+                throw new PreconditionFailedException("Item " + id + " is at version " + current.get().getVersion());
+            }
+            return null;
+        }
+        return findById(id).orElse(null);
+    }
+
+    /** Items are never deleted without their owner, so the sum only grows: +2 per insert, +1 per update. */
+    @Override
+    public long ownerVersion(Long ownerId) {
+        return Objects.requireNonNull(jdbc.queryForObject(
+                "SELECT COALESCE(SUM(version), 0) + COUNT(*) FROM items WHERE owner_id = ?", Long.class, ownerId));
+    }
+
+    /** Nothing to hide: {@code items.owner_id} cascades, so the rows go with the user's row. */
+    @Override
+    public void hideOwner(Long ownerId) {
+    }
+
+    @Override
+    public int purgeOwner(Long ownerId, int limit) {
+        return 0;
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        }
+        String pattern = "%" + escapeLike(text.toLowerCase(Locale.ROOT)) + "%";
+        return jdbc.query("SELECT " + COLUMNS + " FROM items WHERE available "
+                        + "AND (LOWER(name) LIKE ? ESCAPE '\\' OR LOWER(description) LIKE ? ESCAPE '\\') ORDER BY id",
+                JdbcItemStorage::mapRow, pattern, pattern);
+    }
+
+    /**
+     * Every criterion becomes a WHERE clause, and the rows come through a cursor that is closed
+     * as soon as the visitor declines, so a page reads only the rows it shows. Read-only for the
+     * same reason as {@link #forEach}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void filter(ItemFilter filter, Predicate<Item> visitor) {
+        if (filter.text() != null && filter.text().isBlank()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM items WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (filter.text() != null) {
+            String pattern = "%" + escapeLike(filter.text().toLowerCase(Locale.ROOT)) + "%";
+            sql.append(" AND (LOWER(name) LIKE ? ESCAPE '\\' OR LOWER(description) LIKE ? ESCAPE '\\')");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        if (filter.available() != null) {
+            sql.append(" AND available = ?");
+            args.add(filter.available());
+        }
+        if (filter.ownerId() != null) {
+            sql.append(" AND owner_id = ?");
+            args.add(filter.ownerId());
+        }
+        sql.append(" ORDER BY id");
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            ps.setFetchSize(FILTER_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (ResultSetExtractor<Void>) rs -> {
+            while (rs.next()) {
+                if (!visitor.test(mapRow(rs, 0))) {
+                    break;
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<Item> findByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(requestIds.size(), "?"));
+        return jdbc.query("SELECT " + COLUMNS + " FROM items WHERE request_id IN (" + placeholders + ") ORDER BY id",
+                JdbcItemStorage::mapRow, requestIds.toArray());
+    }
+
+    @Override
+    public long count() {
+        return Objects.requireNonNull(jdbc.queryForObject("SELECT COUNT(*) FROM items", Long.class));
+    }
+
+    /**
+     * Streams rows through a server-side cursor; PostgreSQL only honours the fetch size inside a
+     * transaction, otherwise the driver would buffer the whole result set.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<Item> action) {
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT " + COLUMNS + " FROM items ORDER BY id");
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(mapRow(rs, 0)));
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void setInsertValues(PreparedStatement ps, Item item) throws SQLException {
+        ps.setString(1, item.getName());
+        ps.setString(2, item.getDescription());
+        ps.setBoolean(3, item.getAvailable());
+        ps.setLong(4, item.getOwnerId());
+        ps.setObject(5, item.getRequestId(), Types.BIGINT);
+        ps.setTimestamp(6, Timestamp.from(item.getUpdatedAt()));
+    }
+
+    private static Item mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Item item = new Item(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                rs.getBoolean("available"), rs.getLong("owner_id"), rs.getObject("request_id", Long.class));
+        item.setVersion(rs.getLong("version"));
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        item.setUpdatedAt(updatedAt == null ? null : updatedAt.toInstant());
+        return item;
+    }
+}
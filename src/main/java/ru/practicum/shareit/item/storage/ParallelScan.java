@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * Splits an unindexed scan of the id range into contiguous ranges and probes them on a dedicated
+ * {@link ForkJoinPool}, so long scans neither queue behind nor starve the common pool.
+ *
+ * <p>The caller first walks a short head range alone, streaming it to the visitor, so a page
+ * that fills there never wakes the pool. Only then do workers start; they and the caller claim the
+ * remaining ranges from one cursor and return each as an id-ordered list. The ranges are
+ * contiguous, so merging the partial results only means concatenating them in range order. The
+ * visitor always runs on the calling thread; once it declines, unclaimed ranges are dropped and
+ * running ones stop at their next check.
+ */
+final class ParallelScan implements AutoCloseable {
+    /** fewer ids per range and the bookkeeping shows up in the profile */
+    static final int MIN_RANGE = 16_384;
+    private static final int RANGES_PER_THREAD = 4;
+    private static final int STOP_CHECK_MASK = 1023;
+    private static final AtomicInteger POOLS = new AtomicInteger();
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final long threshold;
+
+    /**
+     * @param parallelism threads scanning at once, the caller included
+     * @param threshold   smallest number of candidate ids worth splitting
+     */
+    ParallelScan(int parallelism, long threshold) {
+        if (parallelism < 2) {
+            throw new IllegalArgumentException("A parallel scan needs at least 2 threads");
+        }
+        int poolId = POOLS.incrementAndGet();
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism - 1, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("item-scan-" + poolId + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+    }
+
+    boolean appliesTo(long candidates) {
+        return candidates >= threshold;
+    }
+
+    /**
+     * Hands every non-null {@code probe(id)} for ids in {@code [from, to)} to the visitor in id order.
+     * The probe runs on several threads at once and must only read.
+     */
+    void scan(long from, long to, LongFunction<Item> probe, Predicate<Item> visitor) {
+        long length = to - from;
+        int ranges = (int) Math.max(1, Math.min((long) parallelism * RANGES_PER_THREAD, length / MIN_RANGE));
+        Run run = new Run(from, length, ranges, probe);
+        try {
+            for (long id = from; id < run.end(0); id++) {
+                Item item = probe.apply(id);
+                if (item != null && !visitor.test(item)) {
+                    return;
+                }
+            }
+            for (int i = 1; i < Math.min(parallelism, ranges); i++) {
+                pool.execute(run::work);
+            }
+            for (int i = 1; i < ranges; i++) {
+                CompletableFuture<List<Item>> part = run.parts.get(i);
+                // пока нужный диапазон у воркера, вызывающий поток сам берёт следующие
+                boolean helping = true;
+                while (helping && !part.isDone()) {
+                    helping = run.claimAndProbe();
+                }
+                for (Item item : part.join()) {
+                    if (!visitor.test(item)) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            run.stopped = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private static final class Run {
+        final long from;
+        final long length;
+        /** ids in range 0, walked by the caller before any worker starts */
+        final long head;
+        final int ranges;
+        final LongFunction<Item> probe;
+        final List<CompletableFuture<List<Item>>> parts;
+        /** range 0 belongs to the caller */
+        final AtomicInteger cursor = new AtomicInteger(1);
+        volatile boolean stopped;
+
+        Run(long from, long length, int ranges, LongFunction<Item> probe) {
+            this.from = from;
+            this.length = length;
+            this.head = ranges == 1 ? length : Math.min(length, MIN_RANGE);
+            this.ranges = ranges;
+            this.probe = probe;
+            this.parts = new ArrayList<>(ranges);
+            for (int i = 0; i < ranges; i++) {
+                parts.add(new CompletableFuture<>());
+            }
+        }
+
+        long end(int range) {
+            return range == 0 ? from + head : from + head + (length - head) * range / (ranges - 1);
+        }
+
+        void work() {
+            while (!stopped) {
+                if (!claimAndProbe()) {
+                    return;
+                }
+            }
+        }
+
+        /** @return false once every range is claimed */
+        boolean claimAndProbe() {
+            int range = cursor.getAndIncrement();
+            if (range >= ranges) {
+                return false;
+            }
+            try {
+                List<Item> found = new ArrayList<>();
+                long end = end(range);
+                for (long id = end(range - 1); id < end; id++) {
+                    if ((id & STOP_CHECK_MASK) == 0 && stopped) {
+                        break;
+                    }
+                    Item item = probe.apply(id);
+                    if (item != null) {
+                        found.add(item);
+                    }
+                }
+                parts.get(range).complete(found);
+            } catch (Throwable e) {
+                parts.get(range).completeExceptionally(e);
+            }
+            return true;
+        }
+    }
+}
@@ -1,7 +1,78 @@
 package ru.practicum.shareit.request;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/** "Wanted" ad: a user asks for an item that nobody has listed yet. */
+@FieldDefaults(level = AccessLevel.PRIVATE)
 public class ItemRequest {
+    Long id;
+
+    String description;
+
+    Long requestorId;
+
+    LocalDateTime created;
+
+    public ItemRequest() {
+    }
+
+    public ItemRequest(Long id, String description, Long requestorId, LocalDateTime created) {
+        this.id = id;
+        this.description = description;
+        this.requestorId = requestorId;
+        this.created = created;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getRequestorId() {
+        return requestorId;
+    }
+
+    public void setRequestorId(Long requestorId) {
+        this.requestorId = requestorId;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    public void setCreated(LocalDateTime created) {
+        this.created = created;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ItemRequest request = (ItemRequest) o;
+        return Objects.equals(id, request.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
 }
@@ -1,12 +1,45 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
+
+/** REST controller for item requests. */
 @RestController
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final ItemRequestService service;
+
+    public ItemRequestController(ItemRequestService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ItemRequestDto create(@RequestHeader(USER_HEADER) Long userId, @Valid @RequestBody ItemRequestDto dto) {
+        return service.create(userId, dto);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> own(@RequestHeader(USER_HEADER) Long userId) {
+        return service.getOwn(userId);
+    }
+
+    @GetMapping("/all")
+    public List<ItemRequestDto> all(@RequestHeader(USER_HEADER) Long userId,
+                                    @RequestParam(defaultValue = "0") int from,
+                                    @RequestParam(defaultValue = "10") int size) {
+        return service.getAll(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto get(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long requestId) {
+        return service.get(userId, requestId);
+    }
 }
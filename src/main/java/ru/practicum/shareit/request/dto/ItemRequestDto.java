@@ -1,7 +1,62 @@
 package ru.practicum.shareit.request.dto;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import jakarta.validation.constraints.NotBlank;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/** DTO returned/accepted via REST for item requests; items are the answers posted so far. */
 public class ItemRequestDto {
+    private Long id;
+
+    @NotBlank
+    private String description;
+
+    private LocalDateTime created;
+
+    private List<ItemDto> items = new ArrayList<>();
+
+    public ItemRequestDto() {
+    }
+
+    public ItemRequestDto(Long id, String description, LocalDateTime created, List<ItemDto> items) {
+        this.id = id;
+        this.description = description;
+        this.created = created;
+        this.items = items;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    public void setCreated(LocalDateTime created) {
+        this.created = created;
+    }
+
+    public List<ItemDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemDto> items) {
+        this.items = items;
+    }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request.mapper;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ItemRequestMapper {
+
+    public static ItemRequestDto toDto(ItemRequest request, List<ItemDto> items) {
+        if (request == null) {
+            return null;
+        }
+        return new ItemRequestDto(request.getId(), request.getDescription(), request.getCreated(), items);
+    }
+
+    public static ItemRequest fromDto(ItemRequestDto dto, Long requestorId, LocalDateTime created) {
+        if (dto == null) {
+            return null;
+        }
+        return new ItemRequest(null, dto.getDescription(), requestorId, created);
+    }
+}
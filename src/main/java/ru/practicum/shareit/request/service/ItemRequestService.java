@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto create(Long userId, ItemRequestDto dto);
+
+    List<ItemRequestDto> getOwn(Long userId);
+
+    List<ItemRequestDto> getAll(Long userId, int from, int size);
+
+    ItemRequestDto get(Long userId, Long requestId);
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.request.service;
+
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.storage.ItemRequestStorage;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestStorage storage;
+    private final ItemStorage itemStorage;
+    private final UserService userService;
+
+    public ItemRequestServiceImpl(ItemRequestStorage storage, ItemStorage itemStorage, UserService userService) {
+        this.storage = storage;
+        this.itemStorage = itemStorage;
+        this.userService = userService;
+    }
+
+    @Override
+    public ItemRequestDto create(Long userId, ItemRequestDto dto) {
+        userService.get(userId);
+        ItemRequest saved = storage.save(ItemRequestMapper.fromDto(dto, userId, LocalDateTime.now()));
+        return ItemRequestMapper.toDto(saved, new ArrayList<>());
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwn(Long userId) {
+        userService.get(userId);
+        return withItems(storage.findByRequestor(userId));
+    }
+
+    @Override
+    public List<ItemRequestDto> getAll(Long userId, int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new IllegalArgumentException("Invalid paging parameters: from=" + from + ", size=" + size);
+        }
+        userService.get(userId);
+        return withItems(storage.findAllExcept(userId, from, size));
+    }
+
+    @Override
+    public ItemRequestDto get(Long userId, Long requestId) {
+        userService.get(userId);
+        ItemRequest request = storage.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found: " + requestId));
+        return withItems(List.of(request)).get(0);
+    }
+
+    /** Attaches answers to the whole page with a single item lookup instead of one per request. */
+    private List<ItemRequestDto> withItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = new ArrayList<>(requests.size());
+        for (ItemRequest request : requests) {
+            ids.add(request.getId());
+        }
+        Map<Long, List<ItemDto>> byRequest = new HashMap<>();
+        for (Item item : itemStorage.findByRequestIds(ids)) {
+            byRequest.computeIfAbsent(item.getRequestId(), k -> new ArrayList<>()).add(ItemMapper.toDto(item));
+        }
+        List<ItemRequestDto> result = new ArrayList<>(requests.size());
+        for (ItemRequest request : requests) {
+            result.add(ItemRequestMapper.toDto(request, byRequest.getOrDefault(request.getId(), new ArrayList<>())));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.request.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Ids grow with creation time, so id order doubles as "newest first" order for paging. */
+@Repository
+@ConditionalOnProperty(name = "shareit.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemRequestStorage implements ItemRequestStorage {
+    private final NavigableMap<Long, ItemRequest> requests = new ConcurrentSkipListMap<>();
+    private final Map<Long, NavigableSet<Long>> byRequestor = new ConcurrentHashMap<>();
+    private final AtomicLong seq = new AtomicLong(1);
+
+    @Override
+    public ItemRequest save(ItemRequest request) {
+        long id = seq.getAndIncrement();
+        request.setId(id);
+        requests.put(id, request);
+        byRequestor.computeIfAbsent(request.getRequestorId(), k -> new ConcurrentSkipListSet<>()).add(id);
+        return request;
+    }
+
+    @Override
+    public Optional<ItemRequest> findById(Long id) {
+        return Optional.ofNullable(requests.get(id));
+    }
+
+    @Override
+    public List<ItemRequest> findByRequestor(Long requestorId) {
+        List<ItemRequest> found = new ArrayList<>();
+        NavigableSet<Long> ids = byRequestor.get(requestorId);
+        if (ids != null) {
+            for (Long id : ids.descendingSet()) {
+                found.add(requests.get(id));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<ItemRequest> findAllExcept(Long requestorId, int from, int size) {
+        List<ItemRequest> page = new ArrayList<>();
+        Iterator<ItemRequest> it = requests.descendingMap().values().iterator();
+        int skipped = 0;
+        while (page.size() < size && it.hasNext()) {
+            ItemRequest request = it.next();
+            if (Objects.equals(request.getRequestorId(), requestorId)) {
+                continue;
+            }
+            if (skipped < from) {
+                skipped++;
+            } else {
+                page.add(request);
+            }
+        }
+        return page;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.storage;
+
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRequestStorage {
+    ItemRequest save(ItemRequest request);
+
+    Optional<ItemRequest> findById(Long id);
+
+    /** The user's own requests, newest first. */
+    List<ItemRequest> findByRequestor(Long requestorId);
+
+    /** Other users' requests, newest first, skipping {@code from} and returning at most {@code size}. */
+    List<ItemRequest> findAllExcept(Long requestorId, int from, int size);
+}
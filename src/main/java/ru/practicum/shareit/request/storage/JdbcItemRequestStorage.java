@@ -0,0 +1,67 @@
+package ru.practicum.shareit.request.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+@ConditionalOnProperty(name = "shareit.storage.type", havingValue = "jdbc")
+public class JdbcItemRequestStorage implements ItemRequestStorage {
+    private static final String COLUMNS = "id, description, requestor_id, created";
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcItemRequestStorage(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public ItemRequest save(ItemRequest request) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO requests (description, requestor_id, created) VALUES (?, ?, ?)", new String[]{"id"});
+            ps.setString(1, request.getDescription());
+            ps.setLong(2, request.getRequestorId());
+            ps.setTimestamp(3, Timestamp.valueOf(request.getCreated()));
+            return ps;
+        }, keys);
+        request.setId(Objects.requireNonNull(keys.getKey()).longValue());
+        return request;
+    }
+
+    @Override
+    public Optional<ItemRequest> findById(Long id) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM requests WHERE id = ?", JdbcItemRequestStorage::mapRow, id)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<ItemRequest> findByRequestor(Long requestorId) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM requests WHERE requestor_id = ? ORDER BY id DESC",
+                JdbcItemRequestStorage::mapRow, requestorId);
+    }
+
+    @Override
+    public List<ItemRequest> findAllExcept(Long requestorId, int from, int size) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM requests WHERE requestor_id <> ? ORDER BY id DESC LIMIT ? OFFSET ?",
+                JdbcItemRequestStorage::mapRow, requestorId, size, from);
+    }
+
+    private static ItemRequest mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ItemRequest(rs.getLong("id"), rs.getString("description"), rs.getLong("requestor_id"),
+                rs.getTimestamp("created").toLocalDateTime());
+    }
+}
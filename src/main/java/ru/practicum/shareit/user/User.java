@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 
+import java.time.Instant;
 import java.util.Objects;
 
 /** Basic User model kept in-memory in sprint 14. */
@@ -19,6 +20,11 @@ public class User {
     @Email
     String email;
 
+    /** 1 when stored, bumped by every stored change; the basis of the user's ETag */
+    long version;
+
+    Instant updatedAt;
+
     public User() {
     }
 
@@ -52,6 +58,22 @@ public class User {
         this.email = email;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
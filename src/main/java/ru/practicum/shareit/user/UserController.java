@@ -1,20 +1,30 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.common.EntityTag;
+import ru.practicum.shareit.common.JsonArrayResponse;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserJsonWriter;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -23,19 +33,38 @@ public class UserController {
         return userService.create(dto);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<UserDto> createBatch(@RequestBody List<UserDto> dtos) {
+        return userService.createBatch(dtos);
+    }
+
     @PatchMapping("/{userId}")
-    public UserDto update(@PathVariable Long userId, @RequestBody UserDto patch) {
-        return userService.update(userId, patch);
+    public UserDto update(@PathVariable Long userId,
+                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                          @RequestBody UserDto patch) {
+        return userService.update(userId, patch, EntityTag.expectedVersion(ifMatch, userId));
     }
 
+    /**
+     * Answers a matching If-None-Match / If-Modified-Since with 304. The validators come from the
+     * DTO that would be sent, cached or not, so the tag always describes the body.
+     */
     @GetMapping("/{userId}")
-    public UserDto get(@PathVariable Long userId) {
-        return userService.get(userId);
+    public UserDto get(@PathVariable Long userId, WebRequest request) {
+        UserDto user = userService.get(userId);
+        EntityTag tag = EntityTag.of(userId, user.getVersion(), user.getUpdatedAt());
+        if (request.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
+        return user;
     }
 
+    /** Written straight from the stored users with {@link UserJsonWriter}, no DTO list. */
     @GetMapping
-    public List<UserDto> getAll() {
-        return userService.getAll();
+    public void getAll(HttpServletResponse response) throws IOException {
+        JsonArrayResponse.write(objectMapper, response, array ->
+                userService.forEachUser(user -> array.element(gen -> UserJsonWriter.write(gen, user))));
     }
 
     @DeleteMapping("/{userId}")
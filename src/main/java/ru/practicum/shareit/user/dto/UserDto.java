@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
+import java.time.Instant;
+
 /** DTO returned/accepted via REST for users. */
 public class UserDto {
     private Long id;
@@ -14,6 +17,13 @@ public class UserDto {
     @Email
     private String email;
 
+    /** validators of the user this DTO was built from; not part of the JSON */
+    @JsonIgnore
+    private long version;
+
+    @JsonIgnore
+    private Instant updatedAt;
+
     public UserDto() {
     }
 
@@ -46,4 +56,20 @@ public class UserDto {
     public void setEmail(String email) {
         this.email = email;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.user.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+
+/** Writes a user in the shape Jackson gives {@link UserDto}, without building the DTO. */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class UserJsonWriter {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+
+    public static void write(JsonGenerator gen, User user) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        if (user.getId() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(user.getId());
+        }
+        gen.writeFieldName(NAME);
+        gen.writeString(user.getName());
+        gen.writeFieldName(EMAIL);
+        gen.writeString(user.getEmail());
+        gen.writeEndObject();
+    }
+}
@@ -12,7 +12,10 @@ public final class UserMapper {
         if (user == null) {
             return null;
         }
-        return new UserDto(user.getId(), user.getName(), user.getEmail());
+        UserDto dto = new UserDto(user.getId(), user.getName(), user.getEmail());
+        dto.setVersion(user.getVersion());
+        dto.setUpdatedAt(user.getUpdatedAt());
+        return dto;
     }
 
     public static User fromDto(UserDto dto) {
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background half of a user deletion: {@link UserServiceImpl#delete} hides the user's items at
+ * once, this job then removes them batch by batch, so the request never waits for a large
+ * catalog and no single step holds a store lock for long.
+ */
+@Slf4j
+@Component
+public class UserCleanup {
+    private final ItemStorage itemStorage;
+    private final int batchSize;
+
+    public UserCleanup(ItemStorage itemStorage, @Value("${shareit.cleanup.batch-size:1000}") int batchSize) {
+        this.itemStorage = itemStorage;
+        this.batchSize = batchSize;
+    }
+
+    @Async
+    public void purge(Long userId) {
+        long start = System.nanoTime();
+        long purged = 0;
+        for (int batch; (batch = itemStorage.purgeOwner(userId, batchSize)) > 0; ) {
+            purged += batch;
+        }
+        if (purged > 0) {
+            log.info("Purged {} items of deleted user {} in {} ms", purged, userId,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
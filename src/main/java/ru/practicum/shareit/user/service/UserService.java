@@ -1,16 +1,34 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto create(UserDto dto);
 
-    UserDto update(Long userId, UserDto patchDto);
+    /** Creates the whole batch or nothing; rejected elements are reported by index. */
+    List<UserDto> createBatch(List<UserDto> dtos);
+
+    /**
+     * @param expectedVersion version from the client's If-Match, or {@code null} to patch unconditionally
+     * @throws ru.practicum.shareit.common.exceptions.PreconditionFailedException if the user moved on
+     */
+    UserDto update(Long userId, UserDto patchDto, Long expectedVersion);
 
     UserDto get(Long id);
 
+    /** Users that exist among {@code ids}, by id, read in one storage call; missing ids have no entry. */
+    Map<Long, UserDto> getByIds(Collection<Long> ids);
+
     List<UserDto> getAll();
 
-    void delete(Long id);
+    /** Same users as {@link #getAll}, handed to the sink instead of as DTOs. */
+    void forEachUser(Consumer<User> sink);
+
+    /** Deleting a missing user is not an error; the result tells whether there was one. */
+    boolean delete(Long id);
 }
@@ -1,52 +1,102 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import ru.practicum.shareit.common.exceptions.ConflictException;
+import ru.practicum.shareit.common.BatchValidator;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.common.events.ChangeEvent;
+import ru.practicum.shareit.common.events.ChangeLog;
+import ru.practicum.shareit.common.exceptions.BatchException;
 import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
-import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
-    private final InMemoryUserStorage storage = new InMemoryUserStorage();
+    private final UserStorage storage;
+    private final ItemStorage itemStorage;
+    private final UserCleanup cleanup;
+    private final BatchValidator batchValidator;
+    private final ChangeLog changeLog;
+
+    public UserServiceImpl(UserStorage storage, ItemStorage itemStorage, UserCleanup cleanup,
+                           BatchValidator batchValidator, ChangeLog changeLog) {
+        this.storage = storage;
+        this.itemStorage = itemStorage;
+        this.cleanup = cleanup;
+        this.batchValidator = batchValidator;
+        this.changeLog = changeLog;
+    }
 
     @Override
     public UserDto create(UserDto dto) {
         if (!StringUtils.hasText(dto.getEmail())) {
             throw new IllegalArgumentException("Email is required");
         }
-        if (storage.emailExists(dto.getEmail(), null)) {
-            throw new ConflictException("Email already in use");
-        }
+        // уникальность email проверяет и резервирует хранилище атомарно
         User saved = storage.save(UserMapper.fromDto(dto));
+        changed(ChangeEvent.Type.CREATED, saved);
         return UserMapper.toDto(saved);
     }
 
     @Override
-    public UserDto update(Long userId, UserDto patchDto) {
-        if (patchDto.getEmail() != null && storage.emailExists(patchDto.getEmail(), userId)) {
-            throw new ConflictException("Email already in use");
+    public List<UserDto> createBatch(List<UserDto> dtos) {
+        Map<Integer, String> errors = batchValidator.validate(dtos);
+        if (!errors.isEmpty()) {
+            throw new BatchException(HttpStatus.BAD_REQUEST, errors);
+        }
+        List<User> users = new ArrayList<>(dtos.size());
+        for (UserDto dto : dtos) {
+            users.add(UserMapper.fromDto(dto));
+        }
+        List<User> saved = storage.saveAll(users);
+        for (User user : saved) {
+            changed(ChangeEvent.Type.CREATED, user);
         }
-        User patched = storage.updatePartial(userId, UserMapper.fromDto(patchDto));
+        return saved.stream()
+                .map(UserMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    public UserDto update(Long userId, UserDto patchDto, Long expectedVersion) {
+        User patched = storage.updatePartial(userId, UserMapper.fromDto(patchDto), expectedVersion);
         if (patched == null) {
             throw new NotFoundException("User not found: " + userId);
         }
+        changed(ChangeEvent.Type.UPDATED, patched);
         return UserMapper.toDto(patched);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
     public UserDto get(Long id) {
         return storage.findById(id)
                 .map(UserMapper::toDto)
                 .orElseThrow(() -> new NotFoundException("User not found: " + id));
     }
 
+    @Override
+    public Map<Long, UserDto> getByIds(Collection<Long> ids) {
+        return storage.findByIds(ids).stream()
+                .collect(Collectors.toMap(User::getId, UserMapper::toDto));
+    }
+
     @Override
     public List<UserDto> getAll() {
         return storage.findAll().stream()
@@ -55,8 +105,34 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public void delete(Long id) {
-        storage.delete(id);
+    public void forEachUser(Consumer<User> sink) {
+        storage.findAll().forEach(sink);
+    }
+
+    /**
+     * Items of the user disappear from every read right after the user does; their memory is
+     * reclaimed later by {@link UserCleanup}. Cached items cannot be found by owner, so the
+     * whole item cache is dropped. Only the user's deletion is published; consumers drop the
+     * user's items themselves. A missing user is a no-op: nothing is hidden, published or
+     * evicted.
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id", condition = "#result"),
+            @CacheEvict(cacheNames = CacheConfig.ITEMS, allEntries = true, condition = "#result")
+    })
+    public boolean delete(Long id) {
+        if (!storage.delete(id)) {
+            return false;
+        }
+        itemStorage.hideOwner(id);
+        changeLog.publish(ChangeEvent.Entity.USER, ChangeEvent.Type.DELETED, id, 0, null);
+        cleanup.purge(id);
+        return true;
+    }
+
+    private void changed(ChangeEvent.Type type, User user) {
+        changeLog.publish(ChangeEvent.Entity.USER, type, user.getId(), user.getVersion(), user.getUpdatedAt());
     }
 }
 
@@ -1,54 +1,255 @@
 package ru.practicum.shareit.user.storage;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.common.exceptions.BatchException;
+import ru.practicum.shareit.common.exceptions.ConflictException;
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
+import ru.practicum.shareit.common.persistence.StorageJournal;
 import ru.practicum.shareit.user.User;
+
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
-public class InMemoryUserStorage {
+/**
+ * Users are never modified once stored: an update swaps in a patched copy inside
+ * {@code computeIfPresent}, so readers see either the old or the new version as a whole.
+ */
+@Repository
+@ConditionalOnProperty(name = "shareit.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUserStorage implements UserStorage {
     private final Map<Long, User> users = new ConcurrentHashMap<>();
+    /** normalized email -> id of the user holding it */
+    private final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
     private final AtomicLong seq = new AtomicLong(1);
+    /** set only when persistence is enabled; every change is logged before it becomes visible */
+    private StorageJournal journal;
 
+    /** Loads the recovered users and starts journaling; called once at startup. */
+    @Autowired(required = false)
+    public void setJournal(StorageJournal journal) {
+        for (User user : journal.takeRecoveredUsers()) {
+            users.put(user.getId(), user);
+            emailIndex.put(normalize(user.getEmail()), user.getId());
+        }
+        seq.set(journal.nextUserId());
+        this.journal = journal;
+    }
+
+    @Override
     public User save(User user) {
         long id = seq.getAndIncrement();
+        reserveEmail(user.getEmail(), id);
         user.setId(id);
-        users.put(id, user);
+        user.setVersion(1);
+        user.setUpdatedAt(Instant.now());
+        long lsn;
+        beginChange();
+        try {
+            lsn = journalPut(List.of(user));
+            users.put(id, user);
+        } finally {
+            endChange();
+        }
+        sync(lsn);
         return user;
     }
 
+    /**
+     * Reserves every email first and releases them all if any is taken, so a rejected batch
+     * leaves no trace except the skipped id block.
+     */
+    @Override
+    public List<User> saveAll(List<User> batch) {
+        long first = seq.getAndAdd(batch.size());
+        Map<Integer, String> conflicts = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (emailIndex.putIfAbsent(normalize(batch.get(i).getEmail()), first + i) != null) {
+                conflicts.put(i, "Email already in use");
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            for (int i = 0; i < batch.size(); i++) {
+                emailIndex.remove(normalize(batch.get(i).getEmail()), first + i);
+            }
+            throw new BatchException(HttpStatus.CONFLICT, conflicts);
+        }
+        Instant now = Instant.now();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(first + i);
+            batch.get(i).setVersion(1);
+            batch.get(i).setUpdatedAt(now);
+        }
+        long lsn;
+        beginChange();
+        try {
+            lsn = journalPut(batch);
+            for (User user : batch) {
+                users.put(user.getId(), user);
+            }
+        } finally {
+            endChange();
+        }
+        sync(lsn);
+        return batch;
+    }
+
+    @Override
     public Optional<User> findById(Long id) {
         return Optional.ofNullable(users.get(id));
     }
 
+    @Override
+    public List<User> findByIds(Collection<Long> ids) {
+        List<User> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        return found;
+    }
+
+    @Override
     public List<User> findAll() {
         return new ArrayList<>(users.values());
     }
 
-    public void delete(Long id) {
-        users.remove(id);
+    @Override
+    public boolean delete(Long id) {
+        User[] removed = new User[1];
+        long[] lsn = new long[1];
+        beginChange();
+        try {
+            users.computeIfPresent(id, (key, existing) -> {
+                if (journal != null) {
+                    lsn[0] = journal.deleteUser(id);
+                }
+                removed[0] = existing;
+                return null;
+            });
+        } finally {
+            endChange();
+        }
+        if (removed[0] != null) {
+            emailIndex.remove(normalize(removed[0].getEmail()), id);
+            sync(lsn[0]);
+        }
+        return removed[0] != null;
+    }
+
+    /**
+     * Applies a patch atomically with respect to other updates and deletes of the same user by
+     * replacing the stored user with a patched copy. A new email is reserved before it becomes visible and the old one is released afterwards.
+     *
+     * @throws ConflictException if the new email belongs to another user
+     */
+    @Override
+    public User updatePartial(Long id, User patch, Long expectedVersion) {
+        long[] lsn = new long[1];
+        User updated;
+        beginChange();
+        try {
+            updated = users.computeIfPresent(id, (key, existing) -> {
+                if (expectedVersion != null && existing.getVersion() != expectedVersion) {
+                    throw new PreconditionFailedException("User " + id + " is at version " + existing.getVersion());
+                }
+                String oldEmail = normalize(existing.getEmail());
+                boolean emailChanged = patch.getEmail() != null && !oldEmail.equals(normalize(patch.getEmail()));
+                if (patch.getEmail() != null) {
+                    reserveEmail(patch.getEmail(), id);
+                }
+                User after = new User(id, patch.getName() != null ? patch.getName() : existing.getName(),
+                        patch.getEmail() != null ? patch.getEmail() : existing.getEmail());
+                after.setVersion(existing.getVersion() + 1);
+                after.setUpdatedAt(Instant.now());
+                if (journal != null) {
+                    try {
+                        lsn[0] = journal.putUsers(List.of(after));
+                    } catch (RuntimeException e) {
+                        if (emailChanged) {
+                            emailIndex.remove(normalize(patch.getEmail()), id);
+                        }
+                        throw e;
+                    }
+                }
+                if (emailChanged) {
+                    emailIndex.remove(oldEmail, id);
+                }
+                return after;
+            });
+        } finally {
+            endChange();
+        }
+        sync(lsn[0]);
+        return updated;
     }
 
-    public User updatePartial(Long id, User patch) {
-        User existing = users.get(id);
-        if (existing == null) {
-            return null;
+    @Override
+    public boolean emailExists(String email, Long excludeId) {
+        Long holder = emailIndex.get(normalize(email));
+        return holder != null && !Objects.equals(holder, excludeId);
+    }
+
+    @Override
+    public long count() {
+        return users.size();
+    }
+
+    /** Logs new users; on failure releases their emails so the rejected write leaves no trace. */
+    private long journalPut(List<User> batch) {
+        if (journal == null) {
+            return 0;
         }
-        if (patch.getName() != null) {
-            existing.setName(patch.getName());
+        try {
+            return journal.putUsers(batch);
+        } catch (RuntimeException e) {
+            for (User user : batch) {
+                emailIndex.remove(normalize(user.getEmail()), user.getId());
+            }
+            throw e;
         }
-        if (patch.getEmail() != null) {
-            existing.setEmail(patch.getEmail());
+    }
+
+    /** Brackets a log append and its apply so a snapshot never rotates between them. */
+    private void beginChange() {
+        if (journal != null) {
+            journal.beginChange();
         }
-        return existing;
     }
 
-    public boolean emailExists(String email, Long excludeId) {
-        return users.values().stream()
-                .anyMatch(u -> u.getEmail().equalsIgnoreCase(email)
-                        && (excludeId == null || !Objects.equals(excludeId, u.getId())));
+    private void endChange() {
+        if (journal != null) {
+            journal.endChange();
+        }
+    }
+
+    private void sync(long lsn) {
+        if (journal != null) {
+            journal.sync(lsn);
+        }
+    }
+
+    private void reserveEmail(String email, long id) {
+        Long holder = emailIndex.putIfAbsent(normalize(email), id);
+        if (holder != null && holder != id) {
+            throw new ConflictException("Email already in use");
+        }
+    }
+
+    static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
     }
 }
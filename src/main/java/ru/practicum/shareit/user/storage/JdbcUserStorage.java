@@ -0,0 +1,193 @@
+package ru.practicum.shareit.user.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.exceptions.BatchException;
+import ru.practicum.shareit.common.exceptions.ConflictException;
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
+import ru.practicum.shareit.user.User;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/** Relational user storage; email uniqueness is enforced by a unique index on the lowercased email. */
+@Repository
+@ConditionalOnProperty(name = "shareit.storage.type", havingValue = "jdbc")
+public class JdbcUserStorage implements UserStorage {
+    private static final String COLUMNS = "id, name, email, version, updated_at";
+    private static final String INSERT = "INSERT INTO users (name, email, version, updated_at) VALUES (?, ?, 1, ?)";
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcUserStorage(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public User save(User user) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        user.setVersion(1);
+        user.setUpdatedAt(Instant.now());
+        try {
+            jdbc.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT, new String[]{"id"});
+                ps.setString(1, user.getName());
+                ps.setString(2, user.getEmail());
+                ps.setTimestamp(3, Timestamp.from(user.getUpdatedAt()));
+                return ps;
+            }, keys);
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException("Email already in use");
+        }
+        user.setId(Objects.requireNonNull(keys.getKey()).longValue());
+        return user;
+    }
+
+    /**
+     * Reports taken emails per element up front; a concurrent insert that slips past the check
+     * still fails the whole transaction through the unique index.
+     */
+    @Override
+    @Transactional
+    public List<User> saveAll(List<User> batch) {
+        String[] lowered = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            lowered[i] = batch.get(i).getEmail().toLowerCase(Locale.ROOT);
+        }
+        String placeholders = String.join(", ", Collections.nCopies(lowered.length, "?"));
+        Set<String> taken = new HashSet<>(jdbc.queryForList(
+                "SELECT LOWER(email) FROM users WHERE LOWER(email) IN (" + placeholders + ")",
+                String.class, (Object[]) lowered));
+        Set<String> seen = new HashSet<>();
+        Map<Integer, String> conflicts = new HashMap<>();
+        for (int i = 0; i < lowered.length; i++) {
+            if (taken.contains(lowered[i]) || !seen.add(lowered[i])) {
+                conflicts.put(i, "Email already in use");
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new BatchException(HttpStatus.CONFLICT, conflicts);
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        Instant now = Instant.now();
+        for (User user : batch) {
+            user.setVersion(1);
+            user.setUpdatedAt(now);
+        }
+        try {
+            jdbc.batchUpdate(con -> con.prepareStatement(INSERT, new String[]{"id"}), new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setString(1, batch.get(i).getName());
+                            ps.setString(2, batch.get(i).getEmail());
+                            ps.setTimestamp(3, Timestamp.from(now));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keys);
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException("Email already in use");
+        }
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(((Number) keyList.get(i).values().iterator().next()).longValue());
+        }
+        return batch;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM users WHERE id = ?", JdbcUserStorage::mapRow, id)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<User> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbc.query("SELECT " + COLUMNS + " FROM users WHERE id IN (" + placeholders + ")",
+                JdbcUserStorage::mapRow, ids.toArray());
+    }
+
+    @Override
+    public List<User> findAll() {
+        return jdbc.query("SELECT " + COLUMNS + " FROM users ORDER BY id", JdbcUserStorage::mapRow);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return jdbc.update("DELETE FROM users WHERE id = ?", id) > 0;
+    }
+
+    @Override
+    public User updatePartial(Long id, User patch, Long expectedVersion) {
+        String sql = "UPDATE users SET name = COALESCE(?, name), email = COALESCE(?, email), "
+                + "version = version + 1, updated_at = ? WHERE id = ?";
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated;
+        try {
+            updated = expectedVersion == null
+                    ? jdbc.update(sql, patch.getName(), patch.getEmail(), now, id)
+                    : jdbc.update(sql + " AND version = ?", patch.getName(), patch.getEmail(), now, id, expectedVersion);
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException("Email already in use");
+        }
+        if (updated == 0) {
+            Optional<User> current = findById(id);
+            if (current.isPresent() && expectedVersion != null) {
+                throw new PreconditionFailedException("User " + id + " is at version " + current.get().getVersion());
+            }
+            return null;
+        }
+        return findById(id).orElse(null);
+    }
+
+    @Override
+    public boolean emailExists(String email, Long excludeId) {
+        Long holder = jdbc.query("SELECT id FROM users WHERE LOWER(email) = ?",
+                        (rs, rowNum) -> rs.getLong("id"), email.toLowerCase(Locale.ROOT))
+                .stream()
+                .findFirst()
+                .orElse(null);
+        return holder != null && !Objects.equals(holder, excludeId);
+    }
+
+    @Override
+    public long count() {
+        return Objects.requireNonNull(jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+    }
+
+    private static User mapRow(ResultSet rs, int rowNum) throws SQLException {
+        User user = new User(rs.getLong("id"), rs.getString("name"), rs.getString("email"));
+        user.setVersion(rs.getLong("version"));
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        user.setUpdatedAt(updatedAt == null ? null : updatedAt.toInstant());
+        return user;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user.storage;
+
+import ru.practicum.shareit.user.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/** User persistence SPI; the backend is selected by {@code shareit.storage.type}. */
+public interface UserStorage {
+    /** @throws ru.practicum.shareit.common.exceptions.ConflictException if the email is already taken */
+    User save(User user);
+
+    /**
+     * Stores every user of the batch in input order, or none of them.
+     *
+     * @throws ru.practicum.shareit.common.exceptions.BatchException listing elements whose email is taken,
+     *                                                                including duplicates within the batch
+     */
+    List<User> saveAll(List<User> users);
+
+    Optional<User> findById(Long id);
+
+    /** Those of the users that exist, in no particular order; one lookup for the whole set. */
+    List<User> findByIds(Collection<Long> ids);
+
+    List<User> findAll();
+
+    /** Whether there was such a user to delete. */
+    boolean delete(Long id);
+
+    /**
+     * Applies non-null fields of the patch; returns {@code null} if the user is missing.
+     *
+     * @throws ru.practicum.shareit.common.exceptions.ConflictException if the new email is already taken
+     */
+    default User updatePartial(Long id, User patch) {
+        return updatePartial(id, patch, null);
+    }
+
+    /**
+     * Same as above, but only while the stored version equals {@code expectedVersion} (if given).
+     * Stores stamp the version and update time themselves: 1 on save, +1 on every update.
+     *
+     * @throws ru.practicum.shareit.common.exceptions.PreconditionFailedException if the version moved on
+     */
+    User updatePartial(Long id, User patch, Long expectedVersion);
+
+    boolean emailExists(String email, Long excludeId);
+
+    long count();
+}
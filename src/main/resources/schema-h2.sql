@@ -0,0 +1,47 @@
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    email       VARCHAR(512) NOT NULL,
+    email_lower VARCHAR(512) GENERATED ALWAYS AS (LOWER(email)),
+    version     BIGINT       NOT NULL DEFAULT 1,
+    updated_at  TIMESTAMP,
+    CONSTRAINT users_email_lower_uq UNIQUE (email_lower)
+);
+
+CREATE TABLE IF NOT EXISTS requests (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description  VARCHAR(2000) NOT NULL,
+    requestor_id BIGINT        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    created      TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_id_idx ON requests (requestor_id, id);
+
+CREATE TABLE IF NOT EXISTS items (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    available   BOOLEAN      NOT NULL,
+    owner_id    BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    request_id  BIGINT       REFERENCES requests (id) ON DELETE SET NULL,
+    version     BIGINT       NOT NULL DEFAULT 1,
+    updated_at  TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_date TIMESTAMP   NOT NULL,
+    end_date   TIMESTAMP   NOT NULL,
+    item_id    BIGINT      NOT NULL,
+    booker_id  BIGINT      NOT NULL,
+    status     VARCHAR(16) NOT NULL,
+    version    BIGINT      NOT NULL DEFAULT 1
+);
+
+CREATE INDEX IF NOT EXISTS bookings_item_id_idx ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_id_idx ON bookings (booker_id, id);
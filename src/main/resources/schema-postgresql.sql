@@ -0,0 +1,53 @@
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    email      VARCHAR(512) NOT NULL,
+    version    BIGINT       NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_lower_uq ON users (LOWER(email));
+
+CREATE TABLE IF NOT EXISTS requests (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description  VARCHAR(2000) NOT NULL,
+    requestor_id BIGINT        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    created      TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_id_idx ON requests (requestor_id, id);
+
+CREATE TABLE IF NOT EXISTS items (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    available   BOOLEAN      NOT NULL,
+    owner_id    BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    request_id  BIGINT       REFERENCES requests (id) ON DELETE SET NULL,
+    version     BIGINT       NOT NULL DEFAULT 1,
+    updated_at  TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_date TIMESTAMP   NOT NULL,
+    end_date   TIMESTAMP   NOT NULL,
+    item_id    BIGINT      NOT NULL,
+    booker_id  BIGINT      NOT NULL,
+    status     VARCHAR(16) NOT NULL,
+    version    BIGINT      NOT NULL DEFAULT 1
+);
+
+CREATE INDEX IF NOT EXISTS bookings_item_id_idx ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_id_idx ON bookings (booker_id, id);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (LOWER(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (LOWER(description) gin_trgm_ops);
@@ -0,0 +1,173 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.item.storage.ItemFilter;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Compares platform and virtual request threads against a storage that blocks for {@link #DELAY_MS}. */
+class VirtualThreadsLoadTest {
+    private static final int TOMCAT_THREADS = 8;
+    private static final int CONCURRENT_REQUESTS = 64;
+    private static final long DELAY_MS = 100;
+
+    @Test
+    void virtualThreadsAreNotCappedByTomcatPool() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        assertThat(platform.maxInFlight).as("platform max in-flight").isLessThanOrEqualTo(TOMCAT_THREADS);
+        assertThat(virtual.maxInFlight).as("virtual max in-flight").isGreaterThan(TOMCAT_THREADS);
+        assertThat(virtual.p99Ms).as("virtual p99, ms, against platform").isLessThan(platform.p99Ms);
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        SlowItemStorage storage = new SlowItemStorage();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("slowItemStorage",
+                        ItemStorage.class, () -> storage, bd -> bd.setPrimary(true)))
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads);
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/search?text=drill"))
+                    .build();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    assertThat(response.statusCode()).isEqualTo(200);
+                    return (System.nanoTime() - begin) / 1_000_000;
+                }));
+            }
+            start.countDown();
+            List<Long> latencies = new ArrayList<>();
+            for (Future<Long> future : futures) {
+                latencies.add(future.get());
+            }
+            Collections.sort(latencies);
+            long p99 = latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+            return new LoadResult(p99, storage.maxInFlight.get());
+        } finally {
+            clients.shutdownNow();
+            context.close();
+        }
+    }
+
+    private record LoadResult(long p99Ms, int maxInFlight) {
+    }
+
+    /**
+     * Simulates blocking I/O in filter, which every search goes through, and records how many
+     * requests are inside it at once.
+     */
+    private static final class SlowItemStorage implements ItemStorage {
+        private final ItemStorage delegate = new InMemoryItemStorage();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public Item save(Item item) {
+            return delegate.save(item);
+        }
+
+        @Override
+        public List<Item> saveAll(List<Item> items) {
+            return delegate.saveAll(items);
+        }
+
+        @Override
+        public Optional<Item> findById(Long id) {
+            return delegate.findById(id);
+        }
+
+        @Override
+        public List<Item> findByOwner(Long ownerId, int from, int size) {
+            return delegate.findByOwner(ownerId, from, size);
+        }
+
+        @Override
+        public Item updatePartial(Long id, Item patch, Long ownerId, Long expectedVersion) {
+            return delegate.updatePartial(id, patch, ownerId, expectedVersion);
+        }
+
+        @Override
+        public long ownerVersion(Long ownerId) {
+            return delegate.ownerVersion(ownerId);
+        }
+
+        @Override
+        public List<Item> search(String text) {
+            return delegate.search(text);
+        }
+
+        @Override
+        public void filter(ItemFilter filter, Predicate<Item> visitor) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(DELAY_MS);
+                delegate.filter(filter, visitor);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void hideOwner(Long ownerId) {
+            delegate.hideOwner(ownerId);
+        }
+
+        @Override
+        public int purgeOwner(Long ownerId, int limit) {
+            return delegate.purgeOwner(ownerId, limit);
+        }
+
+        @Override
+        public long count() {
+            return delegate.count();
+        }
+
+        @Override
+        public void forEach(Consumer<Item> action) {
+            delegate.forEach(action);
+        }
+
+        @Override
+        public List<Item> findByRequestIds(Collection<Long> requestIds) {
+            return delegate.findByRequestIds(requestIds);
+        }
+    }
+}
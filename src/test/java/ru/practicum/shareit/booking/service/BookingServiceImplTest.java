@@ -0,0 +1,243 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.storage.InMemoryBookingStorage;
+import ru.practicum.shareit.common.BatchValidator;
+import ru.practicum.shareit.common.events.ChangeLog;
+import ru.practicum.shareit.common.exceptions.ConflictException;
+import ru.practicum.shareit.common.exceptions.ForbiddenException;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserCleanup;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingServiceImplTest {
+    private static final int THREADS = 16;
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final CountingUserStorage users = new CountingUserStorage();
+    private final CountingItemStorage items = new CountingItemStorage();
+    private final UserServiceImpl userService = new UserServiceImpl(users, items, new UserCleanup(items, 1000),
+            new BatchValidator(Validation.buildDefaultValidatorFactory().getValidator()), new ChangeLog(1024));
+    private final BookingServiceImpl service = new BookingServiceImpl(new InMemoryBookingStorage(), items, userService);
+
+    private final Long ownerId = user("owner");
+    private final Long itemId = items.save(new Item(null, "Drill", "Cordless", true, ownerId)).getId();
+
+    @Test
+    void overlappingBookingIsRejectedUntilTheSlotIsReleased() {
+        Long bookerId = user("booker");
+        BookingDto first = service.create(bookerId, booking(1, 3));
+
+        assertThatThrownBy(() -> service.create(bookerId, booking(2, 4))).isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> service.create(bookerId, booking(0, 5))).isInstanceOf(ConflictException.class);
+        // интервалы полуоткрытые: бронь, начинающаяся в момент окончания, не пересекается
+        assertThat(service.create(bookerId, booking(3, 4)).getStatus()).isEqualTo(BookingStatus.WAITING);
+
+        service.approve(ownerId, first.getId(), false);
+        assertThat(service.create(bookerId, booking(2, 3)).getStatus()).isEqualTo(BookingStatus.WAITING);
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameSlotAdmitExactlyOne() throws Exception {
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(user("racer" + i));
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Callable<BookingDto>> tasks = new ArrayList<>();
+        for (Long bookerId : bookers) {
+            tasks.add(() -> {
+                start.await();
+                try {
+                    return service.create(bookerId, booking(1, 2));
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                    return null;
+                }
+            });
+        }
+        List<BookingDto> created = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<BookingDto>> futures = new ArrayList<>();
+            for (Callable<BookingDto> task : tasks) {
+                futures.add(pool.submit(task));
+            }
+            start.countDown();
+            for (Future<BookingDto> future : futures) {
+                if (future.get() != null) {
+                    created.add(future.get());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(created).hasSize(1);
+        assertThat(conflicts.get()).isEqualTo(THREADS - 1);
+        assertThat(service.getByOwner(ownerId, BookingState.ALL)).extracting(BookingDto::getId)
+                .containsExactly(created.get(0).getId());
+    }
+
+    @Test
+    void stateFiltersSelectByTimeAndStatusNewestFirst() {
+        Long bookerId = user("booker");
+        Long past = service.create(bookerId, booking(-5, -3)).getId();
+        Long current = service.create(bookerId, booking(-1, 1)).getId();
+        Long future = service.create(bookerId, booking(3, 4)).getId();
+        Long rejected = service.create(bookerId, booking(5, 6)).getId();
+        service.approve(ownerId, past, true);
+        service.approve(ownerId, current, true);
+        service.approve(ownerId, rejected, false);
+
+        for (List<BookingDto> listed : List.of(service.getByBooker(bookerId, BookingState.ALL),
+                service.getByOwner(ownerId, BookingState.ALL))) {
+            assertThat(listed).extracting(BookingDto::getId).containsExactly(rejected, future, current, past);
+        }
+        assertThat(ids(BookingState.PAST, bookerId)).containsExactly(past);
+        assertThat(ids(BookingState.CURRENT, bookerId)).containsExactly(current);
+        assertThat(ids(BookingState.FUTURE, bookerId)).containsExactly(rejected, future);
+        assertThat(ids(BookingState.WAITING, bookerId)).containsExactly(future);
+        assertThat(ids(BookingState.REJECTED, bookerId)).containsExactly(rejected);
+        assertThat(service.getByBooker(ownerId, BookingState.ALL)).isEmpty();
+    }
+
+    @Test
+    void listingsReadBookersInOneCall() {
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bookers.add(user("booker" + i));
+            service.create(bookers.get(i), booking(i * 2 + 1, i * 2 + 2));
+        }
+        int lookups = users.findById.get();
+
+        List<BookingDto> listed = service.getByOwner(ownerId, BookingState.ALL);
+
+        assertThat(listed).hasSize(20);
+        assertThat(listed.get(0).getBooker().getName()).isEqualTo("booker19");
+        // одно чтение проверяет владельца, остальные бронирующие читаются пакетом
+        assertThat(users.findById.get()).isEqualTo(lookups + 1);
+        assertThat(users.findByIds.get()).isEqualTo(1);
+    }
+
+    @Test
+    void bookerListingReadsItemsInOneCall() {
+        Long bookerId = user("booker");
+        for (int i = 0; i < 5; i++) {
+            Long otherItem = items.save(new Item(null, "Saw #" + i, "Manual", true, ownerId)).getId();
+            service.create(bookerId, new BookingCreateDto(otherItem, NOW.plusDays(i + 1), NOW.plusDays(i + 2)));
+        }
+        int lookups = items.findById.get();
+
+        List<BookingDto> listed = service.getByBooker(bookerId, BookingState.ALL);
+
+        assertThat(listed).extracting(dto -> dto.getItem().getName())
+                .containsExactly("Saw #4", "Saw #3", "Saw #2", "Saw #1", "Saw #0");
+        assertThat(items.findById.get()).isEqualTo(lookups);
+        assertThat(items.findByIds.get()).isEqualTo(1);
+    }
+
+    @Test
+    void bookingsOfADeletedBookerStayListedWithTheBookerIdOnly() {
+        Long keptId = user("kept");
+        Long goneId = user("gone");
+        service.create(keptId, booking(1, 2));
+        Long orphan = service.create(goneId, booking(3, 4)).getId();
+
+        userService.delete(goneId);
+
+        List<BookingDto> listed = service.getByOwner(ownerId, BookingState.ALL);
+        assertThat(listed).extracting(dto -> dto.getBooker().getId()).containsExactly(goneId, keptId);
+        assertThat(listed.get(0).getBooker().getName()).isNull();
+        assertThat(listed.get(1).getBooker().getName()).isEqualTo("kept");
+        assertThat(service.get(ownerId, orphan).getBooker().getId()).isEqualTo(goneId);
+        assertThat(service.approve(ownerId, orphan, true).getStatus()).isEqualTo(BookingStatus.APPROVED);
+    }
+
+    @Test
+    void bookingsOfADeletedOwnersItemStayVisibleToTheBookerWithTheItemIdOnly() {
+        Long bookerId = user("booker");
+        Long pending = service.create(bookerId, booking(1, 2)).getId();
+
+        userService.delete(ownerId);
+
+        List<BookingDto> listed = service.getByBooker(bookerId, BookingState.ALL);
+        assertThat(listed).extracting(BookingDto::getId).containsExactly(pending);
+        assertThat(listed.get(0).getItem().getId()).isEqualTo(itemId);
+        assertThat(listed.get(0).getItem().getName()).isNull();
+        assertThat(service.get(bookerId, pending).getItem().getId()).isEqualTo(itemId);
+        assertThatThrownBy(() -> service.get(user("stranger"), pending)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> service.approve(ownerId, pending, true)).isInstanceOf(ForbiddenException.class);
+    }
+
+    private List<Long> ids(BookingState state, Long bookerId) {
+        return service.getByBooker(bookerId, state).stream().map(BookingDto::getId).toList();
+    }
+
+    private Long user(String name) {
+        return users.save(new User(null, name, name + "@example.com")).getId();
+    }
+
+    private BookingCreateDto booking(int startDays, int endDays) {
+        return new BookingCreateDto(itemId, NOW.plusDays(startDays), NOW.plusDays(endDays));
+    }
+
+    private static class CountingUserStorage extends InMemoryUserStorage {
+        final AtomicInteger findById = new AtomicInteger();
+        final AtomicInteger findByIds = new AtomicInteger();
+
+        @Override
+        public Optional<User> findById(Long id) {
+            findById.incrementAndGet();
+            return super.findById(id);
+        }
+
+        @Override
+        public List<User> findByIds(Collection<Long> ids) {
+            findByIds.incrementAndGet();
+            return super.findByIds(ids);
+        }
+    }
+
+    private static class CountingItemStorage extends InMemoryItemStorage {
+        final AtomicInteger findById = new AtomicInteger();
+        final AtomicInteger findByIds = new AtomicInteger();
+
+        @Override
+        public Optional<Item> findById(Long id) {
+            findById.incrementAndGet();
+            return super.findById(id);
+        }
+
+        @Override
+        public List<Item> findByIds(Collection<Long> ids) {
+            findByIds.incrementAndGet();
+            return super.findByIds(ids);
+        }
+    }
+}
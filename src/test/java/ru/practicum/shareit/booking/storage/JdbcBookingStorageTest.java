@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.common.exceptions.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "shareit.storage.type=jdbc")
+class JdbcBookingStorageTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private BookingStorage bookingStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void jdbcBackendIsSelectedByProperty() {
+        assertThat(context.containsBean("jdbcBookingStorage")).isTrue();
+        assertThat(context.containsBean("inMemoryBookingStorage")).isFalse();
+    }
+
+    @Test
+    void overlapStatusAndApprovedLookupsMatchInMemoryBehaviour() {
+        Long ownerId = userStorage.save(new User(null, "Lender", "jdbc.lender@example.com")).getId();
+        Long bookerId = userStorage.save(new User(null, "Borrower", "jdbc.borrower@example.com")).getId();
+        Long itemId = itemStorage.save(new Item(null, "Ladder", "Three metres", true, ownerId)).getId();
+
+        Booking past = bookingStorage.save(booking(itemId, bookerId, -3, -2));
+        Booking future = bookingStorage.save(booking(itemId, bookerId, 1, 3));
+        assertThatThrownBy(() -> bookingStorage.save(booking(itemId, bookerId, 2, 4)))
+                .isInstanceOf(ConflictException.class);
+        // интервалы полуоткрытые: бронь, начинающаяся в момент окончания, не пересекается
+        assertThat(bookingStorage.isFree(itemId, NOW.plusDays(3), NOW.plusDays(4))).isTrue();
+
+        assertThat(bookingStorage.updateStatus(past.getId(), BookingStatus.WAITING, BookingStatus.APPROVED)
+                .getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(bookingStorage.updateStatus(past.getId(), BookingStatus.WAITING, BookingStatus.REJECTED)).isNull();
+        bookingStorage.updateStatus(future.getId(), BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        assertThat(bookingStorage.findLastApproved(itemId, NOW)).map(Booking::getId).contains(past.getId());
+        assertThat(bookingStorage.findNextApproved(itemId, NOW)).map(Booking::getId).contains(future.getId());
+        assertThat(bookingStorage.findByBooker(bookerId)).extracting(Booking::getId)
+                .containsExactly(past.getId(), future.getId());
+        assertThat(bookingStorage.findByItemIds(List.of(itemId))).hasSize(2);
+
+        bookingStorage.updateStatus(future.getId(), BookingStatus.APPROVED, BookingStatus.CANCELED);
+        assertThat(bookingStorage.isFree(itemId, NOW.plusDays(2), NOW.plusDays(4))).isTrue();
+    }
+
+    private static Booking booking(Long itemId, Long bookerId, int startDays, int endDays) {
+        return new Booking(null, NOW.plusDays(startDays), NOW.plusDays(endDays), itemId, bookerId,
+                BookingStatus.WAITING);
+    }
+}
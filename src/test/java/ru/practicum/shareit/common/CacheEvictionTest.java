@@ -0,0 +1,106 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Every write that changes what a cached read returns must drop the cached entry. */
+@SpringBootTest
+class CacheEvictionTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void userUpdateAndDeleteEvictTheCachedUser() {
+        Long id = userService.create(new UserDto(null, "Cached", "cached.user@example.com")).getId();
+        userService.get(id);
+        assertThat(cached(CacheConfig.USERS, id)).isNotNull();
+
+        userService.update(id, new UserDto(null, "Renamed", null), null);
+        assertThat(cached(CacheConfig.USERS, id)).isNull();
+        assertThat(userService.get(id).getName()).isEqualTo("Renamed");
+        assertThat(cached(CacheConfig.USERS, id)).isNotNull();
+
+        userService.delete(id);
+        assertThat(cached(CacheConfig.USERS, id)).isNull();
+        assertThatThrownBy(() -> userService.get(id)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void cachedUserCarriesTheVersionItsTagIsBuiltFrom() throws Exception {
+        Long id = userService.create(new UserDto(null, "Tagged", "cached.tagged@example.com")).getId();
+        userService.update(id, new UserDto(null, "Retagged", null), null);
+
+        UserDto loaded = userService.get(id);
+        UserDto cached = (UserDto) cached(CacheConfig.USERS, id);
+        assertThat(cached.getVersion()).isEqualTo(2L);
+        assertThat(cached.getUpdatedAt()).isNotNull();
+        assertThat(EntityTag.of(id, userService.get(id).getVersion(), userService.get(id).getUpdatedAt()))
+                .isEqualTo(EntityTag.of(id, loaded.getVersion(), loaded.getUpdatedAt()));
+        // версия нужна только для заголовков и в тело ответа не попадает
+        assertThat(objectMapper.writeValueAsString(cached)).doesNotContain("version").doesNotContain("updatedAt");
+    }
+
+    @Test
+    void itemUpdateAndOwnerDeletionEvictTheCachedItem() {
+        Long ownerId = userService.create(new UserDto(null, "Owner", "cached.owner@example.com")).getId();
+        Long id = itemService.create(ownerId, new ItemDto(null, "Drill", "Cordless", true)).getId();
+        itemService.get(null, id);
+        assertThat(cached(CacheConfig.ITEMS, id)).isNotNull();
+
+        itemService.update(ownerId, id, new ItemDto(null, "Hammer drill", null, false), null);
+        assertThat(cached(CacheConfig.ITEMS, id)).isNull();
+        ItemDto updated = itemService.get(null, id);
+        assertThat(updated.getName()).isEqualTo("Hammer drill");
+        assertThat(updated.getAvailable()).isFalse();
+
+        userService.delete(ownerId);
+        assertThat(cached(CacheConfig.ITEMS, id)).isNull();
+        assertThatThrownBy(() -> itemService.get(null, id)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void rejectedUpdateKeepsServingTheCachedItem() {
+        Long ownerId = userService.create(new UserDto(null, "Keeper", "cached.keeper@example.com")).getId();
+        Long otherId = userService.create(new UserDto(null, "Other", "cached.other@example.com")).getId();
+        Long id = itemService.create(ownerId, new ItemDto(null, "Saw", "Hand saw", true)).getId();
+        itemService.get(null, id);
+
+        assertThatThrownBy(() -> itemService.update(otherId, id, new ItemDto(null, "Stolen", null, null), null))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(itemService.get(null, id).getName()).isEqualTo("Saw");
+    }
+
+    @Test
+    void deletingAMissingUserIsANoOpThatKeepsTheItemCache() {
+        Long ownerId = userService.create(new UserDto(null, "Stays", "cached.stays@example.com")).getId();
+        Long id = itemService.create(ownerId, new ItemDto(null, "Tent", "Two person", true)).getId();
+        itemService.get(null, id);
+
+        assertThat(userService.delete(Long.MAX_VALUE)).isFalse();
+        assertThat(cached(CacheConfig.ITEMS, id)).isNotNull();
+        assertThat(itemService.get(null, id).getName()).isEqualTo("Tent");
+    }
+
+    private Object cached(String cacheName, Long id) {
+        Cache.ValueWrapper value = cacheManager.getCache(cacheName).get(id);
+        return value == null ? null : value.get();
+    }
+}
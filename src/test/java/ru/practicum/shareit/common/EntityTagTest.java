@@ -0,0 +1,33 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntityTagTest {
+    @Test
+    void tagCarriesIdVersionAndExtraParts() {
+        EntityTag tag = EntityTag.of(7, 3, Instant.ofEpochMilli(1_000), 12L, 0L);
+
+        assertThat(tag.etag()).isEqualTo("\"7.3.12.0\"");
+        assertThat(tag.lastModified()).isEqualTo(1_000);
+        assertThat(EntityTag.of(7, 3, null).lastModified()).isEqualTo(-1);
+    }
+
+    @Test
+    void ifMatchYieldsVersionOfTagIssuedForThisId() {
+        assertThat(EntityTag.expectedVersion(null, 7)).isNull();
+        assertThat(EntityTag.expectedVersion("*", 7)).isNull();
+        assertThat(EntityTag.expectedVersion("\"7.3\"", 7)).isEqualTo(3);
+        assertThat(EntityTag.expectedVersion("\"17.9\", \"7.4.12.0\"", 7)).isEqualTo(4);
+
+        assertThatThrownBy(() -> EntityTag.expectedVersion("\"17.3\"", 7))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> EntityTag.expectedVersion("W/\"7.3\"", 7))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+}
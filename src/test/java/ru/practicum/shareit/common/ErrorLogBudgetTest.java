@@ -0,0 +1,26 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorLogBudgetTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void countsEveryErrorButLogsOnlyTheBudget() {
+        ErrorLogBudget budget = new ErrorLogBudget(registry, 2);
+
+        assertThat(budget.admit(404)).isZero();
+        assertThat(budget.admit(404)).isZero();
+        for (int i = 0; i < 100; i++) {
+            assertThat(budget.admit(404)).isEqualTo(-1);
+        }
+        // у другого статуса свой бюджет
+        assertThat(budget.admit(409)).isZero();
+
+        assertThat(registry.get(ErrorLogBudget.ERRORS).tag("status", "404").counter().count()).isEqualTo(102);
+        assertThat(registry.get(ErrorLogBudget.ERRORS).tag("status", "409").counter().count()).isEqualTo(1);
+    }
+}
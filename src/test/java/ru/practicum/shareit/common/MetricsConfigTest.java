@@ -0,0 +1,78 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.item.storage.ItemFilter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.common.ShareItMetrics.SERVICE;
+import static ru.practicum.shareit.common.ShareItMetrics.STORAGE;
+
+@SpringBootTest
+class MetricsConfigTest {
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    // прокси с таймерами не мешает внедрению по конкретному типу
+    @Autowired
+    private InMemoryItemStorage itemStorage;
+
+    @Test
+    void cacheHitsAreTimedByTheServiceOnly() {
+        Long id = userService.create(new UserDto(null, "Timed", "timed.user@example.com")).getId();
+        long gets = count(SERVICE, "user", "get");
+        long finds = count(STORAGE, "user", "findById");
+
+        userService.get(id);
+        userService.get(id);
+
+        assertThat(count(SERVICE, "user", "get")).isEqualTo(gets + 2);
+        assertThat(count(STORAGE, "user", "findById")).isEqualTo(finds + 1);
+    }
+
+    @Test
+    void defaultAndOverriddenStorageMethodsAreTimed() {
+        long filters = count(STORAGE, "item", "filter");
+        long scans = count(STORAGE, "item", "forEach");
+
+        itemStorage.filter(ItemFilter.availableWith("drill"), item -> true);
+        itemStorage.forEach(item -> { });
+
+        assertThat(count(STORAGE, "item", "filter")).isEqualTo(filters + 1);
+        assertThat(count(STORAGE, "item", "forEach")).isEqualTo(scans + 1);
+        assertThat(registry.find(STORAGE).tag("operation", "count").timer()).isNull();
+    }
+
+    @Test
+    void searchResultSizesAndStoredCountsAreRecorded() {
+        Long ownerId = userService.create(new UserDto(null, "Counted", "timed.owner@example.com")).getId();
+        itemService.create(ownerId, new ItemDto(null, "Metered ladder", "Tall", true));
+        itemService.create(ownerId, new ItemDto(null, "Metered tent", "Small", true));
+        long searches = registry.get(ShareItMetrics.SEARCH_RESULTS).summary().count();
+        double found = registry.get(ShareItMetrics.SEARCH_RESULTS).summary().totalAmount();
+
+        itemService.search(ItemFilter.availableWith("metered"), null, null, false, 0, null);
+        itemService.search(ItemFilter.availableWith("   "), null, null, true, 0, null);
+
+        assertThat(registry.get(ShareItMetrics.SEARCH_RESULTS).summary().count()).isEqualTo(searches + 2);
+        assertThat(registry.get(ShareItMetrics.SEARCH_RESULTS).summary().totalAmount()).isEqualTo(found + 2);
+        assertThat(registry.get("shareit.items.count").gauge().value()).isEqualTo((double) itemStorage.count());
+        assertThat(registry.get("shareit.users.count").gauge().value()).isGreaterThanOrEqualTo(1.0);
+    }
+
+    private long count(String name, String component, String operation) {
+        Timer timer = registry.find(name).tag("component", component).tag("operation", operation).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.common.compression;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressingResponseTest {
+    private static final int MIN_SIZE = 2048;
+
+    private final DeflaterPool pool = new DeflaterPool(6, 2);
+
+    @Test
+    void longJsonBodyIsGzippedAndRoundTrips() throws IOException {
+        byte[] body = json(50_000);
+        MockHttpServletResponse target = new MockHttpServletResponse();
+        CompressingResponse response = write(target, MediaType.APPLICATION_JSON_VALUE, body);
+
+        assertThat(response.compressed()).isTrue();
+        assertThat(target.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(target.getHeader("Content-Length")).isNull();
+        assertThat(response.rawBytes()).isEqualTo(body.length);
+        assertThat(response.wireBytes()).isEqualTo(target.getContentAsByteArray().length).isLessThan(body.length);
+        assertThat(gunzip(target.getContentAsByteArray())).isEqualTo(body);
+        assertThat(pool.idle()).isEqualTo(1);
+    }
+
+    @Test
+    void shortBodyGoesOutAsIsWithItsLength() throws IOException {
+        byte[] body = json(MIN_SIZE - 1);
+        MockHttpServletResponse target = new MockHttpServletResponse();
+        CompressingResponse response = write(target, MediaType.APPLICATION_JSON_VALUE, body);
+
+        assertThat(response.compressed()).isFalse();
+        assertThat(target.getHeader("Content-Encoding")).isNull();
+        assertThat(target.getContentLength()).isEqualTo(body.length);
+        assertThat(target.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    void incompressibleTypeIsNotGzipped() throws IOException {
+        byte[] body = json(50_000);
+        MockHttpServletResponse target = new MockHttpServletResponse();
+        write(target, MediaType.IMAGE_PNG_VALUE, body);
+
+        assertThat(target.getHeader("Content-Encoding")).isNull();
+        assertThat(target.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    void gzippedBodyGetsItsOwnEntityTag() throws IOException {
+        MockHttpServletResponse gzipped = new MockHttpServletResponse();
+        gzipped.setHeader("ETag", "\"1.2\"");
+        write(gzipped, MediaType.APPLICATION_JSON_VALUE, json(50_000));
+        MockHttpServletResponse identity = new MockHttpServletResponse();
+        identity.setHeader("ETag", "\"1.2\"");
+        write(identity, MediaType.APPLICATION_JSON_VALUE, json(100));
+
+        assertThat(gzipped.getHeader("ETag")).isEqualTo("\"1.2-gzip\"");
+        assertThat(identity.getHeader("ETag")).isEqualTo("\"1.2\"");
+        assertThat(CompressingResponse.gzipTag("W/\"x\"")).isEqualTo("W/\"x-gzip\"");
+        assertThat(CompressingResponse.gzipTag("\"x-gzip\"")).isEqualTo("\"x-gzip\"");
+        assertThat(CompressingResponse.identityTags("\"1.2-gzip\", W/\"1.1\"")).isEqualTo("\"1.2\", W/\"1.1\"");
+    }
+
+    @Test
+    void notModifiedAnswerToAGzipTagKeepsTheSuffix() throws IOException {
+        MockHttpServletResponse target = new MockHttpServletResponse();
+        CompressingResponse response = new CompressingResponse(target, pool, MIN_SIZE);
+        response.validatingGzipTag();
+        response.setStatus(304);
+        response.setHeader("ETag", "\"1.2\"");
+        response.finish();
+
+        assertThat(target.getHeader("ETag")).isEqualTo("\"1.2-gzip\"");
+        assertThat(target.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void acceptEncodingIsReadWithItsWeights() {
+        assertThat(CompressionFilter.acceptsGzip(null)).isFalse();
+        assertThat(CompressionFilter.acceptsGzip("deflate, gzip;q=0.5")).isTrue();
+        assertThat(CompressionFilter.acceptsGzip("br, x-gzip")).isTrue();
+        assertThat(CompressionFilter.acceptsGzip("*")).isTrue();
+        assertThat(CompressionFilter.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(CompressionFilter.acceptsGzip("gzip;q=abc")).isFalse();
+    }
+
+    private CompressingResponse write(MockHttpServletResponse target, String contentType, byte[] body)
+            throws IOException {
+        CompressingResponse response = new CompressingResponse(target, pool, MIN_SIZE);
+        response.setContentType(contentType);
+        Random random = new Random(1);
+        try {
+            OutputStream out = response.getOutputStream();
+            for (int off = 0; off < body.length; ) {
+                int len = Math.min(body.length - off, random.nextInt(5000) + 1);
+                out.write(body, off, len);
+                off += len;
+                if (random.nextInt(8) == 0) {
+                    out.flush();
+                }
+            }
+            response.finish();
+        } finally {
+            response.release();
+        }
+        return response;
+    }
+
+    private static byte[] json(int length) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < length - 1; i++) {
+            json.append("{\"id\":").append(i).append(",\"name\":\"Drill #").append(i).append("\"},");
+        }
+        json.setLength(length - 1);
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
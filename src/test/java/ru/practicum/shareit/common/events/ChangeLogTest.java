@@ -0,0 +1,97 @@
+package ru.practicum.shareit.common.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static ru.practicum.shareit.common.events.ChangeEvent.Entity.ITEM;
+import static ru.practicum.shareit.common.events.ChangeEvent.Entity.USER;
+import static ru.practicum.shareit.common.events.ChangeEvent.Type.CREATED;
+import static ru.practicum.shareit.common.events.ChangeEvent.Type.DELETED;
+import static ru.practicum.shareit.common.events.ChangeEvent.Type.UPDATED;
+
+class ChangeLogTest {
+
+    @Test
+    void readsResumeFromTheNextOffset() {
+        ChangeLog log = new ChangeLog(8);
+        log.publish(ITEM, CREATED, 1, 1, null);
+        log.publish(ITEM, CREATED, 2, 1, null);
+        log.publish(USER, UPDATED, 1, 2, null);
+
+        ChangeLog.Batch first = log.read(0, 2, false);
+        assertThat(first.events()).extracting(ChangeEvent::offset).containsExactly(0L, 1L);
+        assertThat(first.next()).isEqualTo(2);
+
+        ChangeLog.Batch second = log.read(first.next(), 10, false);
+        assertThat(second.events()).extracting(ChangeEvent::id).containsExactly(1L);
+        assertThat(second.next()).isEqualTo(3);
+        assertThat(log.read(second.next(), 10, false).events()).isEmpty();
+    }
+
+    @Test
+    void readerLappedByTheRingGetsATruncatedBatch() {
+        ChangeLog log = new ChangeLog(4);
+        for (int i = 1; i <= 10; i++) {
+            log.publish(ITEM, CREATED, i, 1, null);
+        }
+        ChangeLog.Batch batch = log.read(2, 10, false);
+        assertThat(batch.truncated()).isTrue();
+        assertThat(batch.events()).extracting(ChangeEvent::offset).containsExactly(6L, 7L, 8L, 9L);
+
+        // смещение из прошлой жизни процесса
+        assertThat(log.read(50, 10, false).truncated()).isTrue();
+    }
+
+    @Test
+    void coalescingKeepsTheLatestChangeOfEachEntity() {
+        ChangeLog log = new ChangeLog(16);
+        log.publish(ITEM, CREATED, 1, 1, null);
+        log.publish(USER, CREATED, 1, 1, null);
+        log.publish(ITEM, UPDATED, 1, 3, null);
+        log.publish(ITEM, UPDATED, 1, 2, null);
+        log.publish(USER, DELETED, 1, 0, null);
+        log.publish(USER, UPDATED, 1, 5, null);
+
+        List<ChangeEvent> events = log.read(0, 10, true).events();
+        assertThat(events).extracting(ChangeEvent::entity, ChangeEvent::type, ChangeEvent::version)
+                .containsExactly(
+                        tuple(ITEM, UPDATED, 3L),
+                        tuple(USER, DELETED, 0L));
+    }
+
+    @Test
+    void concurrentPublishersLoseNothing() throws Exception {
+        int threads = 4;
+        int perThread = 10_000;
+        ChangeLog log = new ChangeLog(65536);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int writer = t;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        log.publish(ITEM, UPDATED, writer, i, null);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        ChangeLog.Batch all = log.read(0, threads * perThread, false);
+        assertThat(all.events()).hasSize(threads * perThread);
+        assertThat(log.read(0, threads * perThread, true).events())
+                .extracting(ChangeEvent::version)
+                .containsOnly((long) perThread - 1);
+    }
+}
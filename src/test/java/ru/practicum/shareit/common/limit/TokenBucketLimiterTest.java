@@ -0,0 +1,51 @@
+package ru.practicum.shareit.common.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(10, 5, clock::get);
+
+    @Test
+    void burstIsSpentAtOnceThenTokensComeAtTheRate() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(1)).isZero();
+        }
+        assertThat(limiter.tryAcquire(1)).isEqualTo(SECOND / 10);
+        assertThat(limiter.tryAcquire(2)).as("other users keep their own bucket").isZero();
+
+        clock.addAndGet(SECOND / 10);
+        assertThat(limiter.tryAcquire(1)).isZero();
+        assertThat(limiter.tryAcquire(1)).isEqualTo(SECOND / 10);
+
+        clock.addAndGet(SECOND);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(1)).isZero();
+        }
+        assertThat(limiter.tryAcquire(1)).isPositive();
+    }
+
+    @Test
+    void refilledBucketsAreEvictedBySweeps() {
+        for (long user = 0; user < 1_000; user++) {
+            limiter.tryAcquire(user);
+        }
+        assertThat(limiter.size()).isEqualTo(1_000);
+
+        clock.addAndGet(TokenBucketLimiter.SWEEP_INTERVAL / 2);
+        limiter.tryAcquire(-1);
+        assertThat(limiter.size()).as("not due yet").isEqualTo(1_001);
+
+        clock.addAndGet(TokenBucketLimiter.SWEEP_INTERVAL);
+        limiter.tryAcquire(-1);
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(1);
+    }
+}
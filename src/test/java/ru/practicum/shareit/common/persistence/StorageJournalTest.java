@@ -0,0 +1,153 @@
+package ru.practicum.shareit.common.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysLogUpToTornTailAndContinuesInNewSegment() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1, FsyncMode.GROUP)) {
+            wal.append(Records.users(List.of(new User(1L, "First", "first@example.com"),
+                    new User(2L, "Second", "second@example.com"))));
+            wal.append(Records.userDelete(1L));
+            wal.append(Records.items(List.of(new Item(7L, "Drill", "Cordless", true, 2L))));
+        }
+        Path segment = WriteAheadLog.segmentPath(dir, 1);
+        long clean;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            clean = channel.size();
+        }
+        // запись оборвалась посреди кадра
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1, FsyncMode.GROUP)) {
+            wal.append(Records.items(List.of(new Item(8L, "Saw", "Hand saw", false, 2L))));
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(clean + 6);
+        }
+
+        RecoveredState state = StorageJournal.recover(dir);
+
+        assertThat(state.users).containsOnlyKeys(2L);
+        assertThat(state.items).containsOnlyKeys(7L);
+        assertThat(state.userSeq).isEqualTo(3);
+        assertThat(state.itemSeq).isEqualTo(8);
+        assertThat(state.nextSegment).isEqualTo(2);
+    }
+
+    @Test
+    void snapshotIsLoadedAndLaterSegmentsReplayedOnTop() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1, FsyncMode.GROUP)) {
+            wal.append(Records.users(List.of(new User(1L, "Stale", "stale@example.com"))));
+        }
+        StorageJournal.writeSnapshot(dir, 2, 2, 3, List.of(new User(1L, "First", "first@example.com")),
+                action -> action.accept(new Item(2L, "Drill", "Cordless", true, 1L)));
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 2, FsyncMode.GROUP)) {
+            wal.append(Records.items(List.of(new Item(2L, "Drill", "Cordless, two batteries", false, 1L))));
+            wal.append(Records.userDelete(5L));
+        }
+
+        RecoveredState state = StorageJournal.recover(dir);
+
+        assertThat(state.users.get(1L).getName()).isEqualTo("First");
+        assertThat(state.items.get(2L).getAvailable()).isFalse();
+        assertThat(state.userSeq).isEqualTo(6);
+        assertThat(state.itemSeq).isEqualTo(3);
+        assertThat(state.nextSegment).isEqualTo(3);
+    }
+
+    @Test
+    void itemsOfDeletedOwnerAreDroppedEvenIfLoggedAfterTheDeletion() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1, FsyncMode.GROUP)) {
+            wal.append(Records.items(List.of(new Item(1L, "Drill", "Cordless", true, 1L),
+                    new Item(2L, "Saw", "Hand saw", true, 2L))));
+            wal.append(Records.itemOwnerDelete(1L));
+            // запоздалое обновление уже скрытой вещи
+            wal.append(Records.items(List.of(new Item(1L, "Drill", "Two batteries", true, 1L))));
+        }
+
+        RecoveredState state = StorageJournal.recover(dir);
+
+        assertThat(state.items).containsOnlyKeys(2L);
+        assertThat(state.itemSeq).isEqualTo(3);
+    }
+
+    @Test
+    void writeLoggedBeforeRotationButAppliedDuringSnapshotSurvivesRecovery() throws Exception {
+        InMemoryUserStorage users = new InMemoryUserStorage();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("users", users);
+        beans.registerSingleton("items", new InMemoryItemStorage());
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch apply = new CountDownLatch(1);
+        // писатель засыпает между записью в лог и применением к карте
+        StorageJournal journal = new StorageJournal(dir, FsyncMode.GROUP, Duration.ofHours(1),
+                beans.getBeanProvider(UserStorage.class), beans.getBeanProvider(ItemStorage.class)) {
+            @Override
+            public long putUsers(Collection<User> batch) {
+                long lsn = super.putUsers(batch);
+                logged.countDown();
+                try {
+                    apply.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return lsn;
+            }
+        };
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            users.setJournal(journal);
+            journal.afterSingletonsInstantiated();
+            Future<User> writer = threads.submit(() -> users.save(new User(null, "Racer", "racer@example.com")));
+            logged.await();
+            Future<?> snapshot = threads.submit(() -> {
+                journal.snapshot();
+                return null;
+            });
+            try {
+                // без общей блокировки снимок успел бы пройти и удалить сегмент с этой записью
+                snapshot.get(300, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException expected) {
+                // снимок ждёт, пока запись не станет видна
+            }
+            apply.countDown();
+            Long id = writer.get().getId();
+            snapshot.get();
+
+            RecoveredState state = StorageJournal.recover(dir);
+
+            assertThat(state.users).containsOnlyKeys(id);
+            assertThat(state.userSeq).isEqualTo(id + 1);
+        } finally {
+            apply.countDown();
+            threads.shutdownNow();
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.booking.storage.InMemoryBookingStorage;
+import ru.practicum.shareit.common.BatchValidator;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.common.events.ChangeLog;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.request.storage.InMemoryItemRequestStorage;
+import ru.practicum.shareit.user.service.UserCleanup;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemControllerTest {
+    private static final int ITEMS = 30;
+    private static final int UNFILTERED_SIZE = 5;
+
+    private final InMemoryItemStorage storage = new InMemoryItemStorage();
+    private final ItemController controller = new ItemController(service(storage), new ObjectMapper(),
+            UNFILTERED_SIZE);
+
+    @Test
+    void searchWithoutTextOrOwnerIsPagedByDefault() throws IOException {
+        for (int i = 0; i < ITEMS; i++) {
+            storage.save(new Item(null, "Drill #" + i, "Cordless", true, (long) i % 3 + 1));
+        }
+
+        assertThat(found(null, null, null)).isEqualTo(UNFILTERED_SIZE);
+        assertThat(found(null, null, 20)).isEqualTo(20);
+        assertThat(found("drill", null, null)).isEqualTo(ITEMS);
+        assertThat(found(null, 1L, null)).isEqualTo(ITEMS / 3);
+    }
+
+    private int found(String text, Long ownerId, Integer size) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.search(text, "true", ownerId, null, null, "id", 0, size, response);
+        return new ObjectMapper().readTree(response.getContentAsString()).size();
+    }
+
+    private static ItemServiceImpl service(InMemoryItemStorage storage) {
+        BatchValidator validator = new BatchValidator(Validation.buildDefaultValidatorFactory().getValidator());
+        UserServiceImpl users = new UserServiceImpl(new InMemoryUserStorage(), storage,
+                new UserCleanup(storage, 1000), validator, new ChangeLog(1024));
+        return new ItemServiceImpl(storage, new InMemoryBookingStorage(), users, new InMemoryItemRequestStorage(),
+                validator, new ConcurrentMapCacheManager(CacheConfig.ITEMS), new ChangeLog(1024),
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.booking.storage.InMemoryBookingStorage;
+import ru.practicum.shareit.common.BatchValidator;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.common.events.ChangeLog;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.request.storage.InMemoryItemRequestStorage;
+import ru.practicum.shareit.user.service.UserCleanup;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemExportTest {
+    private static final int ITEMS = 1_000_000;
+    private static final int CHECKPOINT = 200_000;
+    /** 1M materialized DTOs alone would retain well over 100 MB */
+    private static final long MAX_RETAINED_GROWTH = 32L * 1024 * 1024;
+
+    @Test
+    void exportOfMillionItemsKeepsRetainedHeapFlat() throws Exception {
+        GeneratedItemStorage storage = new GeneratedItemStorage();
+        ItemController controller = new ItemController(service(storage), new ObjectMapper(), 100);
+        CountingResponse response = new CountingResponse();
+
+        long baseline = retainedHeap();
+        controller.export("ndjson", response);
+
+        assertThat(response.lines).isEqualTo(ITEMS);
+        assertThat(response.getContentType()).startsWith("application/x-ndjson");
+        assertThat(storage.retained).hasSize(ITEMS / CHECKPOINT);
+        for (long retained : storage.retained) {
+            assertThat(retained - baseline).isLessThan(MAX_RETAINED_GROWTH);
+        }
+    }
+
+    @Test
+    void jsonFormatWritesSingleArray() throws Exception {
+        InMemoryItemStorage storage = new InMemoryItemStorage();
+        storage.save(new Item(null, "Drill", "Cordless", true, 1L));
+        storage.save(new Item(null, "Saw", "Hand saw", false, 2L));
+        ItemController controller = new ItemController(service(storage), new ObjectMapper(), 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.export("json", response);
+
+        assertThat(response.getContentAsString())
+                .startsWith("[{\"id\":1,\"name\":\"Drill\"")
+                .contains("},{\"id\":2,\"name\":\"Saw\"")
+                .endsWith("}]");
+    }
+
+    private static ItemServiceImpl service(InMemoryItemStorage storage) {
+        BatchValidator validator = new BatchValidator(Validation.buildDefaultValidatorFactory().getValidator());
+        UserServiceImpl users = new UserServiceImpl(new InMemoryUserStorage(), storage,
+                new UserCleanup(storage, 1000), validator, new ChangeLog(1024));
+        return new ItemServiceImpl(storage, new InMemoryBookingStorage(), users, new InMemoryItemRequestStorage(),
+                validator, new ConcurrentMapCacheManager(CacheConfig.ITEMS), new ChangeLog(1024),
+                new SimpleMeterRegistry());
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Synthesizes items on the fly so the catalog itself is not resident; samples the heap mid-export. */
+    private static final class GeneratedItemStorage extends InMemoryItemStorage {
+        final List<Long> retained = new ArrayList<>();
+
+        @Override
+        public void forEach(Consumer<Item> action) {
+            for (long id = 1; id <= ITEMS; id++) {
+                action.accept(new Item(id, "Item #" + id, "Generated item number " + id, id % 3 != 0, id % 1000 + 1));
+                if (id % CHECKPOINT == 0) {
+                    retained.add(retainedHeap());
+                }
+            }
+        }
+    }
+
+    /** Discards the body and only counts NDJSON lines. */
+    private static final class CountingResponse extends MockHttpServletResponse {
+        long lines;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    if (b == '\n') {
+                        lines++;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.mapper.UserJsonWriter;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The hand-written writers must stay byte-for-byte what Jackson makes of the DTOs. */
+class ItemJsonWriterTest {
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void itemMatchesDto() throws Exception {
+        Item item = new Item(3L, "Drill \"pro\"", "Дрель ✓\n<b>", true, 7L, 11L);
+        Booking last = new Booking(5L, LocalDateTime.of(2024, 1, 2, 3, 4), LocalDateTime.of(2024, 1, 3, 0, 0, 0, 500),
+                3L, 9L, BookingStatus.APPROVED);
+        ItemDto dto = ItemMapper.toDto(item);
+        dto.setLastBooking(BookingMapper.toShortDto(last));
+
+        assertThat(written(gen -> ItemJsonWriter.write(gen, item, last, null)))
+                .isEqualTo(mapper.writeValueAsString(dto));
+    }
+
+    @Test
+    void nullFieldsMatchDto() throws Exception {
+        Item item = new Item(4L, null, null, null, 7L);
+
+        assertThat(written(gen -> ItemJsonWriter.write(gen, item, null, null)))
+                .isEqualTo(mapper.writeValueAsString(ItemMapper.toDto(item)));
+    }
+
+    @Test
+    void userMatchesDto() throws Exception {
+        User user = new User(8L, "Анна \\ \"A\"", "anna@example.com");
+
+        assertThat(written(gen -> UserJsonWriter.write(gen, user)))
+                .isEqualTo(mapper.writeValueAsString(UserMapper.toDto(user)));
+    }
+
+    private String written(Body body) throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            body.write(gen);
+        }
+        return out.toString();
+    }
+
+    private interface Body {
+        void write(JsonGenerator gen) throws Exception;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.storage.InMemoryBookingStorage;
+import ru.practicum.shareit.common.BatchValidator;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.common.EntityTag;
+import ru.practicum.shareit.common.events.ChangeLog;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+import ru.practicum.shareit.request.storage.InMemoryItemRequestStorage;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserCleanup;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemServiceImplTest {
+    private final PausingItemStorage storage = new PausingItemStorage();
+    private final InMemoryUserStorage users = new InMemoryUserStorage();
+    private final InMemoryBookingStorage bookings = new InMemoryBookingStorage();
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ITEMS);
+    private final ItemServiceImpl service = service();
+
+    private final Long ownerId = users.save(new User(null, "Owner", "owner@example.com")).getId();
+    private final Long itemId = storage.save(new Item(null, "Drill", "Cordless", true, ownerId)).getId();
+
+    @Test
+    void evictionDuringALoadDropsTheItemReadBeforeTheUpdate() throws Exception {
+        storage.armed = true;
+        Thread reader = new Thread(() -> service.get(null, itemId));
+        reader.start();
+        storage.loaded.await();
+
+        // так выглядит update за прокси: запись в хранилище, затем @CacheEvict
+        Thread updater = new Thread(() -> {
+            service.update(ownerId, itemId, new ItemDto(null, "Renamed", null, null), null);
+            cacheManager.getCache(CacheConfig.ITEMS).evict(itemId);
+        });
+        updater.start();
+        while (updater.isAlive() && updater.getState() != Thread.State.BLOCKED) {
+            Thread.yield();
+        }
+        storage.release.countDown();
+        reader.join();
+        updater.join();
+
+        assertThat(service.get(null, itemId).getName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void ownerItemsTagFollowsItemAndBookingWrites() {
+        Booking booking = bookings.save(new Booking(null, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), itemId, ownerId + 1, BookingStatus.WAITING));
+        EntityTag first = service.ownerItemsTag(ownerId, 0, null);
+        assertThat(service.ownerItemsTag(ownerId, 0, null)).isEqualTo(first);
+        assertThat(service.ownerItemsTag(ownerId, 0, 10)).isNotEqualTo(first);
+
+        bookings.updateStatus(booking.getId(), BookingStatus.WAITING, BookingStatus.APPROVED);
+        EntityTag approved = service.ownerItemsTag(ownerId, 0, null);
+        assertThat(approved).isNotEqualTo(first);
+
+        service.update(ownerId, itemId, new ItemDto(null, "Renamed", null, null), null);
+        assertThat(service.ownerItemsTag(ownerId, 0, null)).isNotEqualTo(approved);
+    }
+
+    @Test
+    void missingItemIsNotFoundAndNotCached() {
+        assertThatThrownBy(() -> service.get(null, Long.MAX_VALUE)).isInstanceOf(NotFoundException.class);
+        assertThat(cacheManager.getCache(CacheConfig.ITEMS).get(Long.MAX_VALUE)).isNull();
+    }
+
+    private ItemServiceImpl service() {
+        BatchValidator validator = new BatchValidator(Validation.buildDefaultValidatorFactory().getValidator());
+        UserServiceImpl userService = new UserServiceImpl(users, storage, new UserCleanup(storage, 1000), validator,
+                new ChangeLog(1024));
+        return new ItemServiceImpl(storage, bookings, userService,
+                new InMemoryItemRequestStorage(), validator, cacheManager, new ChangeLog(1024),
+                new SimpleMeterRegistry());
+    }
+
+    /** Once armed, holds the next reader after it has read the item, until released. */
+    private static class PausingItemStorage extends InMemoryItemStorage {
+        final CountDownLatch loaded = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean armed;
+
+        @Override
+        public Optional<Item> findById(Long id) {
+            Optional<Item> item = super.findById(id);
+            if (armed) {
+                armed = false;
+                loaded.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return item;
+        }
+    }
+}
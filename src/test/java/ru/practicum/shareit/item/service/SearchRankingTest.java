@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchRankingTest {
+    @Test
+    void nameHitsOutrankDescriptionHitsAndAllWordsMustMatch() {
+        List<Item> items = List.of(
+                new Item(1L, "Case", "drill case", true, 1L),
+                new Item(2L, "Drill", "cordless drill, drill bits", true, 1L),
+                new Item(3L, "Drill press", "heavy", true, 1L),
+                new Item(4L, "Cordless drill", "compact drill", true, 1L));
+
+        assertThat(SearchRanking.top(items, SearchRanking.terms("DRILL"), 0, 10))
+                .extracting(Item::getId).containsExactly(2L, 4L, 3L, 1L);
+        assertThat(SearchRanking.top(items, SearchRanking.terms("drill  cordless"), 0, 10))
+                .extracting(Item::getId).containsExactly(4L, 2L);
+        assertThat(SearchRanking.top(items, SearchRanking.terms("drill"), 1, 2))
+                .extracting(Item::getId).containsExactly(4L, 3L);
+        assertThat(SearchRanking.top(items, SearchRanking.terms("drill"), 4, 2)).isEmpty();
+        assertThat(SearchRanking.terms("  ")).isEmpty();
+    }
+
+    @Test
+    void offeredOneByOneWithoutAPageSizeKeepsOnlyMatches() {
+        SearchRanking.Top top = new SearchRanking.Top(SearchRanking.terms("saw"), 1, Integer.MAX_VALUE);
+        for (long id = 1; id <= 1_000; id++) {
+            top.offer(new Item(id, id % 10 == 0 ? "Saw saw" : id % 2 == 0 ? "Saw" : "Drill", "", true, 1L));
+        }
+
+        List<Item> page = top.page();
+        assertThat(page).hasSize(499);
+        assertThat(page.subList(0, 99)).allMatch(item -> item.getName().equals("Saw saw"));
+        assertThat(page.get(0).getId()).isEqualTo(20L);
+        assertThat(page.get(99).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void boundedHeapPagesMatchFullSort() {
+        Random random = new Random(3);
+        String[] words = {"drill", "saw", "drill drill", "ladder"};
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            items.add(new Item(id, words[random.nextInt(words.length)], words[random.nextInt(words.length)], true, 1L));
+        }
+        List<String> terms = SearchRanking.terms("drill");
+        List<Item> sorted = items.stream()
+                .filter(item -> SearchRanking.score(item, terms) > 0)
+                .sorted(Comparator.<Item>comparingInt(item -> -SearchRanking.score(item, terms))
+                        .thenComparing(Item::getId))
+                .toList();
+
+        for (int from = 0; from < sorted.size() + 20; from += 37) {
+            assertThat(SearchRanking.top(items, terms, from, 20))
+                    .isEqualTo(sorted.subList(Math.min(from, sorted.size()), Math.min(from + 20, sorted.size())));
+        }
+    }
+}
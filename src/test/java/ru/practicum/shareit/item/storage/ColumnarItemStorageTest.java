@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarItemStorageTest {
+    private static final String[] WORDS = {"drill", "Hammer", "LADDER", "tent", "дрель", "Пила", "Ёлка"};
+    private static final int ITEMS = 5_000;
+    private static final int OWNERS = 100;
+
+    private final InMemoryItemStorage objects = new InMemoryItemStorage();
+    private final ColumnarItemStorage columnar = new ColumnarItemStorage();
+
+    @Test
+    void behavesLikeObjectStoreAfterRandomWritesAndPatches() {
+        fill(objects, new Random(1));
+        fill(columnar, new Random(1));
+        Random random = new Random(7);
+        for (int i = 0; i < 1_000; i++) {
+            long id = random.nextInt(ITEMS + 10) + 1;
+            long owner = random.nextInt(OWNERS) + 1;
+            String name = random.nextBoolean() ? null : WORDS[random.nextInt(WORDS.length)] + " v" + i;
+            Boolean available = random.nextBoolean() ? null : random.nextBoolean();
+            assertThat(describe(columnar.updatePartial(id, new Item(null, name, null, available, null), owner)))
+                    .isEqualTo(describe(objects.updatePartial(id, new Item(null, name, null, available, null), owner)));
+        }
+
+        for (String query : new String[]{"dri", "DRILL", "дрел", "ДРЕЛЬ", "ёлк", "a", "v99", "absent", " "}) {
+            assertThat(describe(columnar.search(query))).as(query).isEqualTo(describe(objects.search(query)));
+        }
+        for (long owner = 0; owner <= OWNERS; owner++) {
+            assertThat(describe(columnar.findByOwner(owner, 3, 10))).isEqualTo(describe(objects.findByOwner(owner, 3, 10)));
+        }
+        assertThat(describe(columnar.findByRequestIds(List.of(1L, 5L, 404L))))
+                .isEqualTo(describe(objects.findByRequestIds(List.of(1L, 5L, 404L))));
+        assertThat(describe(columnar.findById(ITEMS + 1L).orElse(null))).isEqualTo("null");
+        assertThat(columnar.count()).isEqualTo(objects.count());
+        List<Item> exported = new ArrayList<>();
+        columnar.forEach(exported::add);
+        List<Item> expected = new ArrayList<>();
+        objects.forEach(expected::add);
+        assertThat(describe(exported)).isEqualTo(describe(expected));
+    }
+
+    @Test
+    void hiddenOwnersVanishAtOnceAndArePurgedInBatches() {
+        fill(objects, new Random(3));
+        fill(columnar, new Random(3));
+        long ownItems = objects.findByOwner(5L, 0, ITEMS).size();
+
+        for (ItemStorage storage : List.of(objects, columnar)) {
+            Long hiddenId = storage.findByOwner(5L, 0, 1).get(0).getId();
+            storage.hideOwner(5L);
+            assertThat(storage.findById(hiddenId)).isEmpty();
+            assertThat(storage.findByOwner(5L, 0, ITEMS)).isEmpty();
+            assertThat(storage.search("a")).noneMatch(item -> item.getOwnerId() == 5L);
+            List<Item> exported = new ArrayList<>();
+            storage.forEach(exported::add);
+            assertThat(exported).hasSize(ITEMS - (int) ownItems);
+            assertThat(storage.updatePartial(hiddenId, new Item(null, "x", null, null, null), 5L)).isNull();
+
+            int batches = 0;
+            for (int purged; (purged = storage.purgeOwner(5L, 7)) > 0; batches++) {
+                assertThat(purged).isLessThanOrEqualTo(7);
+            }
+            assertThat(batches).isEqualTo((int) ((ownItems + 6) / 7));
+            assertThat(storage.count()).isEqualTo(ITEMS - ownItems);
+        }
+        for (String query : new String[]{"dri", "ёлк", "a"}) {
+            assertThat(describe(columnar.search(query))).as(query).isEqualTo(describe(objects.search(query)));
+        }
+        assertThat(describe(columnar.findByRequestIds(List.of(1L, 2L, 3L))))
+                .isEqualTo(describe(objects.findByRequestIds(List.of(1L, 2L, 3L))));
+    }
+
+    @Test
+    void indexedFilterMatchesDefaultScan() {
+        fill(objects, new Random(5));
+        fill(columnar, new Random(5));
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            long id = random.nextInt(ITEMS) + 1;
+            long owner = random.nextInt(OWNERS) + 1;
+            boolean available = random.nextBoolean();
+            objects.updatePartial(id, new Item(null, null, null, available, null), owner);
+            columnar.updatePartial(id, new Item(null, null, null, available, null), owner);
+        }
+        objects.hideOwner(9L);
+        columnar.hideOwner(9L);
+
+        for (String text : new String[]{null, "dri", "ДРЕЛЬ", "a", "absent"}) {
+            for (Boolean available : new Boolean[]{null, true, false}) {
+                for (Long owner : new Long[]{null, 3L, 9L, 404L}) {
+                    ItemFilter filter = new ItemFilter(text, available, owner);
+                    assertThat(describe(filtered(objects, filter))).as(filter.toString())
+                            .isEqualTo(describe(filtered(columnar, filter)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void searchIgnoresTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        // в турецкой локали "I".toLowerCase() даёт "ı" без точки, и "TITAN" перестал бы находиться по "titan"
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            for (ItemStorage storage : List.of(objects, columnar)) {
+                storage.save(new Item(null, "TITAN ICE AXE", "Light", true, 1L));
+                for (String query : new String[]{"titan", "TITAN", "ice"}) {
+                    assertThat(storage.search(query)).as(query).extracting(Item::getName)
+                            .containsExactly("TITAN ICE AXE");
+                }
+                assertThat(filtered(storage, new ItemFilter("axe", true, null))).hasSize(1);
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private static List<Item> filtered(ItemStorage storage, ItemFilter filter) {
+        List<Item> items = new ArrayList<>();
+        storage.filter(filter, items::add);
+        return items;
+    }
+
+    private static void fill(ItemStorage storage, Random random) {
+        for (int i = 0; i < ITEMS; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            Long requestId = random.nextInt(10) == 0 ? (long) random.nextInt(20) + 1 : null;
+            storage.save(new Item(null, word + " #" + i, "Comes with a " + WORDS[random.nextInt(WORDS.length)],
+                    random.nextInt(4) != 0, (long) random.nextInt(OWNERS) + 1, requestId));
+        }
+    }
+
+    private static List<String> describe(List<Item> items) {
+        return items.stream().map(ColumnarItemStorageTest::describe).toList();
+    }
+
+    private static String describe(Item item) {
+        return item == null ? "null" : item.getId() + "|" + item.getName() + "|" + item.getDescription() + "|"
+                + item.getAvailable() + "|" + item.getOwnerId() + "|" + item.getRequestId();
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writers keep rewriting a few items with patches whose fields only make sense together; readers
+ * on every read path check that each item they get is one whole version and stays that way.
+ */
+class InMemoryItemStorageStressTest {
+    private static final long OWNER = 1L;
+    private static final int ITEMS = 8;
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int UPDATES_PER_WRITER = 20_000;
+
+    private final InMemoryItemStorage storage = new InMemoryItemStorage();
+
+    @Test
+    void readersNeverSeeAHalfAppliedPatch() throws Exception {
+        for (int i = 0; i < ITEMS; i++) {
+            storage.save(new Item(null, "stress 0", "stress 0", true, OWNER));
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        try {
+            List<Future<Integer>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    for (int k = 1; k <= UPDATES_PER_WRITER; k++) {
+                        long id = (k + writer) % ITEMS + 1;
+                        String text = "stress " + (writer * UPDATES_PER_WRITER + k);
+                        // имя, описание и доступность меняются только вместе
+                        storage.updatePartial(id, new Item(null, text, text, k % 2 == 0, null), OWNER);
+                    }
+                    return UPDATES_PER_WRITER;
+                }));
+            }
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                int reader = r;
+                readers.add(pool.submit(read(reader, writing, start)));
+            }
+            start.countDown();
+            for (Future<Integer> writer : writers) {
+                writer.get();
+            }
+            writing.set(false);
+            for (Future<Integer> reader : readers) {
+                assertThat(reader.get()).as("snapshots checked").isPositive();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long versions = 0;
+        for (long id = 1; id <= ITEMS; id++) {
+            versions += storage.findById(id).orElseThrow().getVersion();
+        }
+        assertThat(versions).isEqualTo(ITEMS + (long) WRITERS * UPDATES_PER_WRITER);
+    }
+
+    private Callable<Integer> read(int reader, AtomicBoolean writing, CountDownLatch start) {
+        return () -> {
+            start.await();
+            int checked = 0;
+            while (writing.get()) {
+                List<Item> seen = switch (reader % 3) {
+                    case 0 -> List.of(storage.findById((long) checked % ITEMS + 1).orElseThrow());
+                    case 1 -> storage.findByOwner(OWNER, 0, ITEMS);
+                    default -> storage.search("stress");
+                };
+                for (Item item : seen) {
+                    String name = item.getName();
+                    Boolean available = item.getAvailable();
+                    long version = item.getVersion();
+                    assertConsistent(item);
+                    Thread.onSpinWait();
+                    // объект, однажды полученный читателем, больше не меняется
+                    assertThat(item.getName()).isSameAs(name);
+                    assertThat(item.getAvailable()).isSameAs(available);
+                    assertThat(item.getVersion()).isEqualTo(version);
+                    checked++;
+                }
+            }
+            return checked;
+        };
+    }
+
+    private static void assertConsistent(Item item) {
+        assertThat(item.getDescription()).isEqualTo(item.getName());
+        long n = Long.parseLong(item.getName().substring("stress ".length()));
+        long k = n % UPDATES_PER_WRITER == 0 ? UPDATES_PER_WRITER : n % UPDATES_PER_WRITER;
+        assertThat(item.getAvailable()).as("available of %s", item.getName()).isEqualTo(n == 0 || k % 2 == 0);
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryItemStorageTest {
+    private static final String[] WORDS = {"drill", "Hammer", "LADDER", "tent", "дрель", "Пила", "Ёлка"};
+    private static final int ITEMS = 3_000;
+    private static final int OWNERS = 50;
+
+    private final InMemoryItemStorage storage = new InMemoryItemStorage();
+
+    @Test
+    void trigramSearchMatchesPlainSubstringScan() {
+        Random random = new Random(1);
+        for (int i = 0; i < ITEMS; i++) {
+            storage.save(new Item(null, word(random) + " #" + i, "Comes with a " + word(random),
+                    random.nextInt(4) != 0, (long) random.nextInt(OWNERS) + 1));
+        }
+        for (int i = 0; i < 2_000; i++) {
+            long id = random.nextInt(ITEMS) + 1;
+            Long owner = storage.findById(id).orElseThrow().getOwnerId();
+            // имя, описание и доступность меняются независимо, чтобы задеть каждую ветку переиндексации
+            String name = random.nextBoolean() ? null : word(random) + " v" + i;
+            String description = random.nextInt(3) == 0 ? word(random).toUpperCase(Locale.ROOT) + " kit" : null;
+            Boolean available = random.nextBoolean() ? null : random.nextBoolean();
+            storage.updatePartial(id, new Item(null, name, description, available, null), owner);
+        }
+
+        for (String query : new String[]{"a", "Ё", "ёл", "dr", "DRI", "drill", "ДРЕЛЬ", "ill #1", "v19", "r k",
+                "ladder kit", "absent"}) {
+            assertThat(ids(storage.search(query))).as(query).isEqualTo(ids(scan(query)));
+        }
+        assertThat(storage.search("")).isEmpty();
+        assertThat(storage.search("   ")).isEmpty();
+    }
+
+    @Test
+    void renamedItemIsFoundByNewTextOnly() {
+        Item item = storage.save(new Item(null, "Cordless drill", "With case", true, 1L));
+
+        storage.updatePartial(item.getId(), new Item(null, "Ladder", null, null, null), 1L);
+        assertThat(storage.search("drill")).isEmpty();
+        assertThat(ids(storage.search("LADD"))).containsExactly(item.getId());
+        assertThat(ids(storage.search("case"))).containsExactly(item.getId());
+
+        storage.updatePartial(item.getId(), new Item(null, null, "Folding", null, null), 1L);
+        assertThat(storage.search("case")).isEmpty();
+        assertThat(ids(storage.search("fold"))).containsExactly(item.getId());
+
+        storage.updatePartial(item.getId(), new Item(null, null, null, false, null), 1L);
+        assertThat(storage.search("ladder")).isEmpty();
+        storage.updatePartial(item.getId(), new Item(null, null, null, true, null), 1L);
+        assertThat(ids(storage.search("ladder"))).containsExactly(item.getId());
+    }
+
+    @Test
+    void ownerPagesComeInIdOrderWithinBounds() {
+        Random random = new Random(2);
+        List<Item> batch = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            batch.add(new Item(null, word(random) + " #" + i, "Comes with a case", random.nextBoolean(),
+                    (long) random.nextInt(OWNERS) + 1));
+        }
+        storage.saveAll(batch.subList(0, ITEMS / 2));
+        for (Item item : batch.subList(ITEMS / 2, ITEMS)) {
+            storage.save(item);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            Item item = batch.get(random.nextInt(ITEMS));
+            storage.updatePartial(item.getId(), new Item(null, "renamed " + i, null, random.nextBoolean(), null),
+                    item.getOwnerId());
+            // чужой владелец не может ни изменить вещь, ни перенести её в свой список
+            assertThat(storage.updatePartial(item.getId(), new Item(null, "stolen", null, null, null),
+                    item.getOwnerId() % OWNERS + 1)).isNull();
+        }
+
+        for (long owner = 1; owner <= OWNERS; owner++) {
+            long ownerId = owner;
+            List<Long> owned = batch.stream().filter(item -> item.getOwnerId() == ownerId).map(Item::getId).toList();
+            assertThat(ids(storage.findByOwner(owner, 0, ITEMS))).isEqualTo(owned);
+            assertThat(ids(storage.findByOwner(owner, 0, 3))).isEqualTo(owned.subList(0, 3));
+            assertThat(ids(storage.findByOwner(owner, 5, 10))).isEqualTo(owned.subList(5, 15));
+            assertThat(ids(storage.findByOwner(owner, owned.size() - 2, 10)))
+                    .isEqualTo(owned.subList(owned.size() - 2, owned.size()));
+            assertThat(storage.findByOwner(owner, owned.size(), 10)).isEmpty();
+            assertThat(storage.findByOwner(owner, 0, 0)).isEmpty();
+        }
+        assertThat(storage.findByOwner(OWNERS + 1L, 0, 10)).isEmpty();
+        assertThat(storage.findByOwner(1L, 0, ITEMS)).allMatch(item -> !item.getName().equals("stolen"));
+    }
+
+    @Test
+    void requestAnswersAreFoundTogetherAndHiddenWithTheirOwner() {
+        Item first = storage.save(new Item(null, "Tent", "Two person", true, 1L, 10L));
+        storage.save(new Item(null, "Saw", "Unrelated", true, 1L));
+        List<Item> batch = storage.saveAll(List.of(new Item(null, "Stove", "Gas", false, 2L, 10L),
+                new Item(null, "Lamp", "LED", true, 3L, 20L)));
+        Item third = storage.save(new Item(null, "Tarp", "Big", true, 3L, 30L));
+
+        assertThat(ids(storage.findByRequestIds(List.of(10L)))).containsExactlyInAnyOrder(first.getId(),
+                batch.get(0).getId());
+        assertThat(ids(storage.findByRequestIds(List.of(10L, 20L, 30L, 404L)))).containsExactlyInAnyOrder(
+                first.getId(), batch.get(0).getId(), batch.get(1).getId(), third.getId());
+        assertThat(storage.findByRequestIds(List.of())).isEmpty();
+
+        // правка полей не отвязывает ответ от запроса
+        storage.updatePartial(first.getId(), new Item(null, "Big tent", null, false, null), 1L);
+        assertThat(storage.findByRequestIds(List.of(10L))).extracting(Item::getName)
+                .containsExactlyInAnyOrder("Big tent", "Stove");
+
+        storage.hideOwner(3L);
+        assertThat(storage.findByRequestIds(List.of(20L, 30L))).isEmpty();
+        assertThat(storage.findByRequestIds(List.of(10L))).hasSize(2);
+    }
+
+    /** What search promises, checked on every stored item without any index. */
+    private List<Item> scan(String query) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        List<Item> found = new ArrayList<>();
+        storage.forEach(item -> {
+            if (Boolean.TRUE.equals(item.getAvailable())
+                    && (item.getName().toLowerCase(Locale.ROOT).contains(lower)
+                    || item.getDescription().toLowerCase(Locale.ROOT).contains(lower))) {
+                found.add(item);
+            }
+        });
+        return found;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemBitmapTest {
+    private static final int CHUNK = 65_536;
+
+    @Test
+    void chunkTurnsIntoABitSetAfterArrayMaxAndBackWhenItShrinks() {
+        ItemBitmap bitmap = new ItemBitmap();
+        BitSet expected = new BitSet();
+        // шаг 7 раскладывает значения по всем словам чанка, а не по первым 64
+        for (int i = 0; i < ItemBitmap.ARRAY_MAX; i++) {
+            add(bitmap, expected, i * 7L % CHUNK);
+        }
+        assertSame(bitmap, expected);
+
+        add(bitmap, expected, CHUNK - 1);
+        assertThat(bitmap.cardinality()).isEqualTo(ItemBitmap.ARRAY_MAX + 1);
+        assertSame(bitmap, expected);
+        ItemBitmap.Snapshot asBits = bitmap.snapshot();
+
+        remove(bitmap, expected, 0);
+        assertThat(bitmap.cardinality()).isEqualTo(ItemBitmap.ARRAY_MAX);
+        assertSame(bitmap, expected);
+        remove(bitmap, expected, 7);
+        add(bitmap, expected, 7);
+        add(bitmap, expected, 0);
+        assertSame(bitmap, expected);
+
+        // снимок неизменяем: поздние записи в него не попадают
+        assertThat(asBits.cardinality()).isEqualTo(ItemBitmap.ARRAY_MAX + 1);
+        assertThat(asBits.contains(CHUNK - 1)).isTrue();
+    }
+
+    @Test
+    void idsOnBothSidesOfAChunkBoundaryLandInTheirOwnChunks() {
+        ItemBitmap bitmap = new ItemBitmap();
+        BitSet expected = new BitSet();
+        for (long id : new long[]{0, CHUNK - 1, CHUNK, CHUNK + 1, 2L * CHUNK - 1, 5L * CHUNK}) {
+            add(bitmap, expected, id);
+        }
+        add(bitmap, expected, CHUNK - 1);
+        assertSame(bitmap, expected);
+
+        remove(bitmap, expected, CHUNK);
+        remove(bitmap, expected, CHUNK + 1);
+        remove(bitmap, expected, 2L * CHUNK - 1);
+        assertSame(bitmap, expected);
+        assertThat(visit(bitmap.snapshot(), 1, Integer.MAX_VALUE)).containsExactly((long) CHUNK - 1, 5L * CHUNK);
+
+        assertThat(bitmap.contains(-1)).isFalse();
+        assertThat(bitmap.contains(Integer.MAX_VALUE + 1L)).isFalse();
+        assertThatThrownBy(() -> bitmap.add(Integer.MAX_VALUE + 1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bulkAddAndRemoveCompactEachChunkToItsLayout() {
+        ItemBitmap bitmap = new ItemBitmap();
+        BitSet expected = new BitSet();
+        // чанк 0 плотный, чанк 1 ровно ARRAY_MAX, чанк 2 из одного значения
+        addAll(bitmap, expected, range(0, 10_000, 1), range(CHUNK, CHUNK + 2 * ItemBitmap.ARRAY_MAX, 2),
+                new int[]{2 * CHUNK + 5});
+        assertSame(bitmap, expected);
+
+        removeAll(bitmap, expected, range(0, 10_000 - ItemBitmap.ARRAY_MAX, 1),
+                range(CHUNK, CHUNK + 2 * ItemBitmap.ARRAY_MAX, 2), new int[]{2 * CHUNK + 4});
+        assertSame(bitmap, expected);
+        assertThat(bitmap.cardinality()).isEqualTo(ItemBitmap.ARRAY_MAX + 1);
+
+        addAll(bitmap, expected, new int[]{CHUNK + 1, CHUNK + 3});
+        assertSame(bitmap, expected);
+    }
+
+    @Test
+    void andAndRemoveAllMatchBitSetsAcrossMixedChunks() {
+        Random random = new Random(17);
+        for (int round = 0; round < 20; round++) {
+            ItemBitmap left = new ItemBitmap();
+            ItemBitmap right = new ItemBitmap();
+            BitSet leftExpected = new BitSet();
+            BitSet rightExpected = new BitSet();
+            fill(left, leftExpected, random);
+            fill(right, rightExpected, random);
+
+            BitSet both = (BitSet) leftExpected.clone();
+            both.and(rightExpected);
+            ItemBitmap.Snapshot and = left.snapshot().and(right.snapshot());
+            assertThat(and.cardinality()).isEqualTo(both.cardinality());
+            assertThat(visit(and, 0, Integer.MAX_VALUE)).isEqualTo(ids(both));
+
+            int[] removed = rightExpected.stream().toArray();
+            left.removeAll(removed, removed.length);
+            leftExpected.andNot(rightExpected);
+            assertSame(left, leftExpected);
+        }
+    }
+
+    @Test
+    void walkSkipsWholeChunksAndStopsWhenTheVisitorDeclines() {
+        ItemBitmap bitmap = new ItemBitmap();
+        BitSet expected = new BitSet();
+        addAll(bitmap, expected, range(0, 3, 1), range(CHUNK, CHUNK + 6_000, 1), range(3 * CHUNK, 3 * CHUNK + 10, 3));
+        List<Long> all = ids(expected);
+
+        for (int skip : new int[]{0, 2, 3, 4, 64, 65, 6_002, 6_003, 6_012, 7_000}) {
+            assertThat(visit(bitmap.snapshot(), skip, 10))
+                    .as("skip " + skip)
+                    .isEqualTo(all.subList(Math.min(skip, all.size()), Math.min(skip + 10, all.size())));
+        }
+    }
+
+    private static void fill(ItemBitmap bitmap, BitSet expected, Random random) {
+        List<int[]> chunks = new ArrayList<>();
+        for (int chunk = 0; chunk < 4; chunk++) {
+            // плотные и разреженные чанки вперемешку, иногда чанка нет вовсе
+            int count = switch (random.nextInt(4)) {
+                case 0 -> 0;
+                case 1 -> random.nextInt(ItemBitmap.ARRAY_MAX) + 1;
+                case 2 -> ItemBitmap.ARRAY_MAX + 1 + random.nextInt(2);
+                default -> ItemBitmap.ARRAY_MAX * 4 + random.nextInt(ItemBitmap.ARRAY_MAX);
+            };
+            BitSet low = new BitSet();
+            while (low.cardinality() < count) {
+                low.set(random.nextInt(CHUNK));
+            }
+            chunks.add(low.stream().map(value -> value + CHUNK * chunks.size()).toArray());
+        }
+        addAll(bitmap, expected, chunks.toArray(new int[0][]));
+    }
+
+    private static void add(ItemBitmap bitmap, BitSet expected, long id) {
+        bitmap.add(id);
+        expected.set((int) id);
+    }
+
+    private static void remove(ItemBitmap bitmap, BitSet expected, long id) {
+        bitmap.remove(id);
+        expected.clear((int) id);
+    }
+
+    private static void addAll(ItemBitmap bitmap, BitSet expected, int[]... parts) {
+        int[] ids = concat(parts);
+        bitmap.addAll(ids, ids.length);
+        for (int id : ids) {
+            expected.set(id);
+        }
+    }
+
+    private static void removeAll(ItemBitmap bitmap, BitSet expected, int[]... parts) {
+        int[] ids = concat(parts);
+        bitmap.removeAll(ids, ids.length);
+        for (int id : ids) {
+            expected.clear(id);
+        }
+    }
+
+    private static int[] concat(int[]... parts) {
+        List<Integer> ids = new ArrayList<>();
+        for (int[] part : parts) {
+            for (int id : part) {
+                ids.add(id);
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] range(int from, int to, int step) {
+        int[] ids = new int[(to - from + step - 1) / step];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = from + i * step;
+        }
+        return ids;
+    }
+
+    private static void assertSame(ItemBitmap bitmap, BitSet expected) {
+        assertThat(bitmap.cardinality()).isEqualTo(expected.cardinality());
+        assertThat(visit(bitmap.snapshot(), 0, Integer.MAX_VALUE)).isEqualTo(ids(expected));
+        for (int id = expected.nextSetBit(0); id >= 0; id = expected.nextSetBit(id + 1)) {
+            assertThat(bitmap.contains(id)).as("contains " + id).isTrue();
+        }
+    }
+
+    private static List<Long> visit(ItemBitmap.Snapshot snapshot, int skip, int limit) {
+        List<Long> ids = new ArrayList<>();
+        snapshot.forEach(skip, id -> {
+            ids.add((long) id);
+            return ids.size() < limit;
+        });
+        return ids;
+    }
+
+    private static List<Long> ids(BitSet set) {
+        return set.stream().mapToObj(id -> (long) id).toList();
+    }
+}
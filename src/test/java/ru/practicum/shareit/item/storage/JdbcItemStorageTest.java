@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import ru.practicum.shareit.common.exceptions.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "shareit.storage.type=jdbc")
+class JdbcItemStorageTest {
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void jdbcBackendIsSelectedByProperty() {
+        // бины обёрнуты прокси с таймерами, поэтому проверяем определения
+        assertThat(context.containsBean("jdbcItemStorage")).isTrue();
+        assertThat(context.containsBean("jdbcUserStorage")).isTrue();
+        assertThat(context.containsBean("inMemoryItemStorage")).isFalse();
+        assertThat(context.containsBean("inMemoryUserStorage")).isFalse();
+    }
+
+    @Test
+    void emailUniquenessIsCaseInsensitive() {
+        User user = userStorage.save(new User(null, "Owner", "Jdbc.Owner@example.com"));
+
+        assertThat(userStorage.emailExists("jdbc.owner@EXAMPLE.com", null)).isTrue();
+        assertThat(userStorage.emailExists("jdbc.owner@example.com", user.getId())).isFalse();
+        assertThatThrownBy(() -> userStorage.save(new User(null, "Copy", "JDBC.OWNER@example.com")))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void ownerPagingSearchAndPartialUpdateMatchInMemoryBehaviour() {
+        Long ownerId = userStorage.save(new User(null, "Shop", "jdbc.shop@example.com")).getId();
+        Long otherId = userStorage.save(new User(null, "Other", "jdbc.other@example.com")).getId();
+        Item drill = itemStorage.save(new Item(null, "Cordless Drill", "18V, two batteries", true, ownerId));
+        Item saw = itemStorage.save(new Item(null, "Saw", "Sharp 100% steel_blade", true, ownerId));
+        Item hidden = itemStorage.save(new Item(null, "Old drill", "broken", false, ownerId));
+
+        assertThat(itemStorage.findByOwner(ownerId, 0, 10)).extracting(Item::getId)
+                .containsExactly(drill.getId(), saw.getId(), hidden.getId());
+        assertThat(itemStorage.findByOwner(ownerId, 1, 1)).extracting(Item::getId).containsExactly(saw.getId());
+
+        assertThat(itemStorage.search("DRILL")).extracting(Item::getId).containsExactly(drill.getId());
+        assertThat(itemStorage.search("100%")).extracting(Item::getId).containsExactly(saw.getId());
+        assertThat(itemStorage.search("l_b")).extracting(Item::getId).containsExactly(saw.getId());
+        assertThat(itemStorage.search("0%s")).isEmpty();
+
+        assertThat(itemStorage.updatePartial(drill.getId(), new Item(null, null, null, false, null), otherId))
+                .isNull();
+        Item patched = itemStorage.updatePartial(drill.getId(), new Item(null, null, null, false, null), ownerId);
+        assertThat(patched.getName()).isEqualTo("Cordless Drill");
+        assertThat(patched.getAvailable()).isFalse();
+        assertThat(itemStorage.search("drill")).isEmpty();
+    }
+
+    @Test
+    void filterAppliesEveryCriterionInSqlAndStopsWithTheVisitor() {
+        Long ownerId = userStorage.save(new User(null, "Rental", "jdbc.rental@example.com")).getId();
+        Long otherId = userStorage.save(new User(null, "Rival", "jdbc.rival@example.com")).getId();
+        Item tent = itemStorage.save(new Item(null, "Tent", "Jdbc filter, two person", true, ownerId));
+        Item tarp = itemStorage.save(new Item(null, "Tarp", "Jdbc filter, for the TENT", false, ownerId));
+        Item rival = itemStorage.save(new Item(null, "Big tent", "Jdbc filter", true, otherId));
+
+        assertThat(filtered(new ItemFilter("tent", null, ownerId), Integer.MAX_VALUE))
+                .containsExactly(tent.getId(), tarp.getId());
+        assertThat(filtered(new ItemFilter("TENT", true, null), Integer.MAX_VALUE))
+                .containsExactly(tent.getId(), rival.getId());
+        assertThat(filtered(new ItemFilter(null, false, ownerId), Integer.MAX_VALUE)).containsExactly(tarp.getId());
+        assertThat(filtered(new ItemFilter("jdbc filter", null, null), 2)).containsExactly(tent.getId(), tarp.getId());
+        assertThat(filtered(new ItemFilter(" ", null, ownerId), Integer.MAX_VALUE)).isEmpty();
+    }
+
+    private List<Long> filtered(ItemFilter filter, int limit) {
+        List<Long> ids = new ArrayList<>();
+        itemStorage.filter(filter, item -> {
+            ids.add(item.getId());
+            return ids.size() < limit;
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelScanTest {
+    private static final String[] WORDS = {"drill", "saw", "Ёлка", "tent", "kayak"};
+    private static final int ITEMS = 100_000;
+    private static final int OWNERS = 100;
+
+    private final InMemoryItemStorage sequential = new InMemoryItemStorage();
+    private final InMemoryItemStorage parallel = new InMemoryItemStorage();
+
+    @Test
+    void splitScanVisitsTheSameItemsInTheSameOrder() {
+        sequential.setParallelScan(0, 1);
+        parallel.setParallelScan(0, 4);
+        fill(sequential, new Random(1));
+        fill(parallel, new Random(1));
+        for (long id = 5; id <= ITEMS; id += 7) {
+            Long owner = sequential.findById(id).orElseThrow().getOwnerId();
+            sequential.updatePartial(id, new Item(null, null, null, false, null), owner);
+            parallel.updatePartial(id, new Item(null, null, null, false, null), owner);
+        }
+        sequential.hideOwner(9L);
+        parallel.hideOwner(9L);
+
+        for (String text : new String[]{"a", "ёл", "#1", "zq"}) {
+            for (Boolean available : new Boolean[]{null, true, false}) {
+                for (int limit : new int[]{1, 20, 10_000, Integer.MAX_VALUE}) {
+                    ItemFilter filter = new ItemFilter(text, available, null);
+                    assertThat(ids(parallel, filter, limit)).as(filter + ", " + limit)
+                            .isEqualTo(ids(sequential, filter, limit));
+                }
+            }
+        }
+    }
+
+    @Test
+    void closingTheStoreStopsItsScanThreads() throws InterruptedException {
+        Set<Thread> before = scanThreads();
+        parallel.setParallelScan(0, 4);
+        fill(parallel, new Random(2));
+        ids(parallel, new ItemFilter("zq", null, null), Integer.MAX_VALUE);
+        Set<Thread> started = scanThreads();
+        started.removeAll(before);
+        assertThat(started).isNotEmpty();
+
+        parallel.close();
+
+        for (Thread thread : started) {
+            thread.join(5_000);
+            assertThat(thread.isAlive()).as(thread.getName()).isFalse();
+        }
+    }
+
+    private static Set<Thread> scanThreads() {
+        Set<Thread> threads = new HashSet<>(Thread.getAllStackTraces().keySet());
+        threads.removeIf(thread -> !thread.getName().startsWith("item-scan-"));
+        return threads;
+    }
+
+    private static List<Long> ids(ItemStorage storage, ItemFilter filter, int limit) {
+        List<Long> ids = new ArrayList<>();
+        storage.filter(filter, item -> {
+            ids.add(item.getId());
+            return ids.size() < limit;
+        });
+        return ids;
+    }
+
+    private static void fill(ItemStorage storage, Random random) {
+        List<Item> batch = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            batch.add(new Item(null, WORDS[random.nextInt(WORDS.length)] + " #" + i, "Comes with a case",
+                    random.nextInt(4) != 0, (long) random.nextInt(OWNERS) + 1));
+        }
+        storage.saveAll(batch);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ItemRequestServiceImplTest {
+    @Autowired
+    private ItemRequestService requestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void ownRequestsComeNewestFirstWithTheirAnswers() {
+        Long requestorId = user("requestor");
+        Long ownerId = user("answerer");
+        Long tent = request(requestorId, "Need a tent");
+        Long ladder = request(requestorId, "Need a ladder");
+        itemService.create(ownerId, new ItemDto(null, "Tent", "Two person", true, tent));
+        itemService.create(ownerId, new ItemDto(null, "Tarp", "Goes with a tent", true, tent));
+        itemService.create(ownerId, new ItemDto(null, "Saw", "Not an answer", true, null));
+
+        List<ItemRequestDto> own = requestService.getOwn(requestorId);
+
+        assertThat(own).extracting(ItemRequestDto::getId).containsExactly(ladder, tent);
+        assertThat(own.get(0).getItems()).isEmpty();
+        assertThat(own.get(1).getItems()).extracting(ItemDto::getName).containsExactlyInAnyOrder("Tent", "Tarp");
+        assertThat(requestService.get(ownerId, tent).getItems()).hasSize(2);
+        assertThat(requestService.getOwn(ownerId)).isEmpty();
+    }
+
+    @Test
+    void allRequestsSkipTheCallersOwnAndPageNewestFirst() {
+        Long readerId = user("reader");
+        Long otherId = user("other");
+        Long mine = request(readerId, "Mine");
+        Long oldest = request(otherId, "Oldest");
+        Long middle = request(otherId, "Middle");
+        Long newest = request(otherId, "Newest");
+
+        assertThat(requestService.getAll(readerId, 0, 2)).extracting(ItemRequestDto::getId)
+                .containsExactly(newest, middle);
+        assertThat(requestService.getAll(readerId, 2, 1)).extracting(ItemRequestDto::getId)
+                .containsExactly(oldest);
+        assertThat(requestService.getAll(otherId, 0, 1)).extracting(ItemRequestDto::getId)
+                .containsExactly(mine);
+    }
+
+    @Test
+    void unknownUsersRequestsAndPagesAreRejected() {
+        Long userId = user("checker");
+
+        assertThatThrownBy(() -> requestService.create(Long.MAX_VALUE, new ItemRequestDto(null, "x", null, List.of())))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> requestService.get(userId, Long.MAX_VALUE)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> requestService.getAll(userId, -1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> requestService.getAll(userId, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> itemService.create(userId, new ItemDto(null, "Orphan", "x", true, Long.MAX_VALUE)))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private Long user(String name) {
+        return userService.create(new UserDto(null, name, name + ".request@example.com")).getId();
+    }
+
+    private Long request(Long requestorId, String description) {
+        return requestService.create(requestorId, new ItemRequestDto(null, description, null, List.of())).getId();
+    }
+}
@@ -0,0 +1,189 @@
+package ru.practicum.shareit.user.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.common.exceptions.BatchException;
+import ru.practicum.shareit.common.exceptions.ConflictException;
+import ru.practicum.shareit.common.exceptions.PreconditionFailedException;
+import ru.practicum.shareit.user.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryUserStorageTest {
+    private static final int THREADS = 16;
+
+    private final InMemoryUserStorage storage = new InMemoryUserStorage();
+
+    @Test
+    void emailIsCaseInsensitiveAndReleasedOnChangeAndDelete() {
+        User first = storage.save(new User(null, "First", "Mail@Example.com"));
+
+        assertThat(storage.emailExists("mail@example.COM", null)).isTrue();
+        assertThat(storage.emailExists("mail@example.com", first.getId())).isFalse();
+        assertThatThrownBy(() -> storage.save(new User(null, "Second", "MAIL@example.com")))
+                .isInstanceOf(ConflictException.class);
+
+        storage.updatePartial(first.getId(), new User(null, null, "other@example.com"));
+        assertThat(storage.emailExists("mail@example.com", null)).isFalse();
+
+        storage.delete(first.getId());
+        assertThat(storage.emailExists("other@example.com", null)).isFalse();
+    }
+
+    @Test
+    void updateBumpsVersionAndRejectsStaleExpectedVersion() {
+        User user = storage.save(new User(null, "First", "first@example.com"));
+        assertThat(user.getVersion()).isEqualTo(1);
+
+        assertThat(storage.updatePartial(user.getId(), new User(null, "Renamed", null), 1L).getVersion()).isEqualTo(2);
+        assertThatThrownBy(() -> storage.updatePartial(user.getId(), new User(null, "Lost", null), 1L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        assertThat(storage.findById(user.getId()).orElseThrow().getName()).isEqualTo("Renamed");
+        assertThat(storage.updatePartial(user.getId(), new User(null, "Forced", null)).getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectedBatchLeavesNoUsersAndNoReservedEmails() {
+        storage.save(new User(null, "Taken", "taken@example.com"));
+
+        assertThatThrownBy(() -> storage.saveAll(List.of(
+                new User(null, "A", "a@example.com"),
+                new User(null, "B", "TAKEN@example.com"),
+                new User(null, "C", "c@example.com"),
+                new User(null, "D", "A@example.com"))))
+                .isInstanceOfSatisfying(BatchException.class,
+                        e -> assertThat(e.getErrors()).containsOnlyKeys(1, 3));
+
+        assertThat(storage.findAll()).hasSize(1);
+        assertThat(storage.emailExists("a@example.com", null)).isFalse();
+        assertThat(storage.emailExists("c@example.com", null)).isFalse();
+
+        List<User> saved = storage.saveAll(List.of(new User(null, "A", "a@example.com"),
+                new User(null, "C", "c@example.com")));
+        assertThat(saved.get(1).getId()).isEqualTo(saved.get(0).getId() + 1);
+    }
+
+    @Test
+    void concurrentSignupsWithSameEmailCreateExactlyOneUser() throws Exception {
+        int emails = 2_000;
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < emails; i++) {
+                String email = (thread % 2 == 0 ? "user" : "USER") + i + "@example.com";
+                try {
+                    storage.save(new User(null, "t" + thread, email));
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(storage.findAll()).hasSize(emails);
+        assertThat(conflicts.get()).isEqualTo(emails * (THREADS - 1));
+        assertNoDuplicateEmails();
+    }
+
+    @Test
+    void concurrentEmailChangesNeverProduceDuplicates() throws Exception {
+        int usersCount = 64;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < usersCount; i++) {
+            ids.add(storage.save(new User(null, "u" + i, "initial" + i + "@example.com")).getId());
+        }
+        runConcurrently(thread -> {
+            for (int i = 0; i < 5_000; i++) {
+                Long id = ids.get((thread * 31 + i) % usersCount);
+                try {
+                    storage.updatePartial(id, new User(null, null, "shared" + (i % 8) + "@example.com"));
+                } catch (ConflictException ignored) {
+                    // другой поток успел занять этот email
+                }
+            }
+        });
+
+        assertNoDuplicateEmails();
+        for (User user : storage.findAll()) {
+            assertThat(storage.emailExists(user.getEmail(), null)).isTrue();
+            assertThat(storage.emailExists(user.getEmail(), user.getId())).isFalse();
+        }
+    }
+
+    @Test
+    void readersSeeNameAndEmailOfTheSameUpdate() throws Exception {
+        Long id = storage.save(new User(null, "n0", "n0@example.com")).getId();
+        int writers = THREADS / 2;
+        AtomicInteger writing = new AtomicInteger(writers);
+        AtomicInteger checked = new AtomicInteger();
+        runConcurrently(thread -> {
+            if (thread < writers) {
+                for (int i = 1; i <= 5_000; i++) {
+                    String name = "n" + (thread * 5_000 + i);
+                    storage.updatePartial(id, new User(null, name, name + "@example.com"));
+                }
+                writing.decrementAndGet();
+                return;
+            }
+            while (writing.get() > 0) {
+                User user = thread % 2 == 0 ? storage.findById(id).orElseThrow() : storage.findAll().get(0);
+                String email = user.getEmail();
+                assertThat(email).isEqualTo(user.getName() + "@example.com");
+                Thread.onSpinWait();
+                assertThat(user.getEmail()).isSameAs(email);
+                checked.incrementAndGet();
+            }
+        });
+
+        assertThat(checked.get()).isPositive();
+        assertThat(storage.findById(id).orElseThrow().getVersion()).isEqualTo(1 + writers * 5_000L);
+        assertNoDuplicateEmails();
+    }
+
+    private void assertNoDuplicateEmails() {
+        Set<String> seen = new HashSet<>();
+        for (User user : storage.findAll()) {
+            assertThat(seen.add(InMemoryUserStorage.normalize(user.getEmail())))
+                    .as("duplicate email %s", user.getEmail())
+                    .isTrue();
+        }
+    }
+
+    private static void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<Void> task = () -> {
+                    start.await();
+                    body.run(thread);
+                    return null;
+                };
+                futures.add(pool.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadBody {
+        void run(int thread);
+    }
+}